@@ -0,0 +1,292 @@
+/*
+ * Copyright (C) 2026 Sonar Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xyz.jonesdev.sonar.api.antibot;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Concurrent map keyed by the binary form of an IP address.
+ * <br>
+ * Addresses are stored as two longs (IPv4 addresses as IPv4-mapped IPv6 addresses)
+ * in striped open-addressing tables, so lookups don't allocate any strings or boxes
+ * and event loops only contend with each other if they happen to access the same stripe.
+ */
+public final class AddressMap<V> {
+  private static final int STRIPES = 32;
+
+  private final Stripe[] stripes = new Stripe[STRIPES];
+
+  public AddressMap() {
+    for (int i = 0; i < STRIPES; i++) {
+      stripes[i] = new Stripe();
+    }
+  }
+
+  public @Nullable V get(final @NotNull InetAddress inetAddress) {
+    if (inetAddress instanceof Inet4Address) {
+      return get(0L, AddressUtil.getIPv4Mapped((Inet4Address) inetAddress));
+    }
+    final byte[] address = inetAddress.getAddress();
+    return get(AddressUtil.pack(address, 0), AddressUtil.pack(address, Long.BYTES));
+  }
+
+  @SuppressWarnings("unchecked")
+  public @Nullable V get(final long high, final long low) {
+    return (V) stripe(high, low).get(high, low);
+  }
+
+  public boolean containsKey(final @NotNull InetAddress inetAddress) {
+    return get(inetAddress) != null;
+  }
+
+  /**
+   * @return the previous value, or null if the value was added
+   */
+  public @Nullable V putIfAbsent(final @NotNull InetAddress inetAddress, final @NotNull V value) {
+    if (inetAddress instanceof Inet4Address) {
+      return putIfAbsent(0L, AddressUtil.getIPv4Mapped((Inet4Address) inetAddress), value);
+    }
+    final byte[] address = inetAddress.getAddress();
+    return putIfAbsent(AddressUtil.pack(address, 0), AddressUtil.pack(address, Long.BYTES), value);
+  }
+
+  @SuppressWarnings("unchecked")
+  public @Nullable V putIfAbsent(final long high, final long low, final @NotNull V value) {
+    return (V) stripe(high, low).putIfAbsent(high, low, value);
+  }
+
+  public @Nullable V remove(final @NotNull InetAddress inetAddress) {
+    if (inetAddress instanceof Inet4Address) {
+      return remove(0L, AddressUtil.getIPv4Mapped((Inet4Address) inetAddress));
+    }
+    final byte[] address = inetAddress.getAddress();
+    return remove(AddressUtil.pack(address, 0), AddressUtil.pack(address, Long.BYTES));
+  }
+
+  @SuppressWarnings("unchecked")
+  public @Nullable V remove(final long high, final long low) {
+    return (V) stripe(high, low).remove(high, low, null);
+  }
+
+  /**
+   * Removes the entry only if it is currently mapped to the given value
+   */
+  public boolean remove(final @NotNull InetAddress inetAddress, final @NotNull V value) {
+    if (inetAddress instanceof Inet4Address) {
+      return remove(0L, AddressUtil.getIPv4Mapped((Inet4Address) inetAddress), value);
+    }
+    final byte[] address = inetAddress.getAddress();
+    return remove(AddressUtil.pack(address, 0), AddressUtil.pack(address, Long.BYTES), value);
+  }
+
+  public boolean remove(final long high, final long low, final @NotNull V value) {
+    return stripe(high, low).remove(high, low, value) != null;
+  }
+
+  /**
+   * Atomically replaces the value (null if absent) with the result of the function.
+   * The entry is removed if the function returns null.
+   *
+   * @return the new value
+   */
+  public @Nullable V compute(final @NotNull InetAddress inetAddress, final @NotNull UnaryOperator<V> function) {
+    if (inetAddress instanceof Inet4Address) {
+      return compute(0L, AddressUtil.getIPv4Mapped((Inet4Address) inetAddress), function);
+    }
+    final byte[] address = inetAddress.getAddress();
+    return compute(AddressUtil.pack(address, 0), AddressUtil.pack(address, Long.BYTES), function);
+  }
+
+  @SuppressWarnings("unchecked")
+  public @Nullable V compute(final long high, final long low, final @NotNull UnaryOperator<V> function) {
+    return (V) stripe(high, low).compute(high, low, (UnaryOperator<Object>) function);
+  }
+
+  /**
+   * Removes all entries whose value matches the filter
+   */
+  @SuppressWarnings("unchecked")
+  public void removeIf(final @NotNull Predicate<V> filter) {
+    for (final Stripe stripe : stripes) {
+      stripe.removeIf((Predicate<Object>) filter);
+    }
+  }
+
+  public int size() {
+    int size = 0;
+    for (final Stripe stripe : stripes) {
+      size += stripe.size;
+    }
+    return size;
+  }
+
+  public void clear() {
+    for (final Stripe stripe : stripes) {
+      stripe.clear();
+    }
+  }
+
+  private static int hash(final long high, final long low) {
+    long hash = (high ^ (low * 0xBF58476D1CE4E5B9L)) * 0x9E3779B97F4A7C15L;
+    return (int) (hash ^ (hash >>> 32));
+  }
+
+  private @NotNull Stripe stripe(final long high, final long low) {
+    return stripes[hash(high, low) >>> 27];
+  }
+
+  /**
+   * Open-addressing hash table with linear probing and backward-shift deletion
+   */
+  private static final class Stripe {
+    private long[] highs = new long[8];
+    private long[] lows = new long[8];
+    // A slot is empty if its value is null
+    private Object[] values = new Object[8];
+    private volatile int size;
+
+    synchronized Object get(final long high, final long low) {
+      final int index = find(high, low);
+      return index < 0 ? null : values[index];
+    }
+
+    synchronized Object putIfAbsent(final long high, final long low, final Object value) {
+      final int index = find(high, low);
+      if (index >= 0) {
+        return values[index];
+      }
+      insert(high, low, value);
+      return null;
+    }
+
+    synchronized Object remove(final long high, final long low, final Object expected) {
+      final int index = find(high, low);
+      if (index < 0) {
+        return null;
+      }
+      final Object value = values[index];
+      if (expected != null && value != expected) {
+        return null;
+      }
+      delete(index);
+      return value;
+    }
+
+    synchronized Object compute(final long high, final long low, final UnaryOperator<Object> function) {
+      final int index = find(high, low);
+      final Object value = function.apply(index < 0 ? null : values[index]);
+      if (index < 0) {
+        if (value != null) {
+          insert(high, low, value);
+        }
+      } else if (value == null) {
+        delete(index);
+      } else {
+        values[index] = value;
+      }
+      return value;
+    }
+
+    synchronized void removeIf(final Predicate<Object> filter) {
+      for (int index = 0; index < values.length; ) {
+        if (values[index] != null && filter.test(values[index])) {
+          // Deleting shifts the next entry into this slot, so check it again
+          delete(index);
+        } else {
+          index++;
+        }
+      }
+    }
+
+    synchronized void clear() {
+      highs = new long[8];
+      lows = new long[8];
+      values = new Object[8];
+      size = 0;
+    }
+
+    private int find(final long high, final long low) {
+      final int mask = values.length - 1;
+      for (int index = hash(high, low) & mask; values[index] != null; index = (index + 1) & mask) {
+        if (highs[index] == high && lows[index] == low) {
+          return index;
+        }
+      }
+      return -1;
+    }
+
+    private void insert(final long high, final long low, final Object value) {
+      if ((size + 1) * 4 > values.length * 3) {
+        rehash(values.length * 2);
+      }
+      final int mask = values.length - 1;
+      int index = hash(high, low) & mask;
+      while (values[index] != null) {
+        index = (index + 1) & mask;
+      }
+      highs[index] = high;
+      lows[index] = low;
+      values[index] = value;
+      size++;
+    }
+
+    private void delete(int index) {
+      final int mask = values.length - 1;
+      int next = index;
+      while (true) {
+        next = (next + 1) & mask;
+        if (values[next] == null) break;
+        final int home = hash(highs[next], lows[next]) & mask;
+        // Move the entry into the gap if its home slot isn't cyclically between the gap and its slot
+        if (index <= next ? index >= home || home > next : index >= home && home > next) {
+          highs[index] = highs[next];
+          lows[index] = lows[next];
+          values[index] = values[next];
+          index = next;
+        }
+      }
+      values[index] = null;
+      size--;
+      // Give memory back once a flood is over
+      if (values.length > 64 && size * 8 < values.length) {
+        rehash(values.length / 2);
+      }
+    }
+
+    private void rehash(final int capacity) {
+      final long[] oldHighs = highs;
+      final long[] oldLows = lows;
+      final Object[] oldValues = values;
+      highs = new long[capacity];
+      lows = new long[capacity];
+      values = new Object[capacity];
+      size = 0;
+      for (int i = 0; i < oldValues.length; i++) {
+        if (oldValues[i] != null) {
+          insert(oldHighs[i], oldLows[i], oldValues[i]);
+        }
+      }
+    }
+  }
+}
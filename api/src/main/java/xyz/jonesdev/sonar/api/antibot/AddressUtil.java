@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2026 Sonar Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xyz.jonesdev.sonar.api.antibot;
+
+import lombok.experimental.UtilityClass;
+import org.jetbrains.annotations.NotNull;
+
+import java.net.Inet4Address;
+import java.net.InetAddress;
+
+@UtilityClass
+public class AddressUtil {
+  // Marks IPv4 prefixes, so they can never be confused with IPv6 prefixes
+  private static final long IPV4_TAG = 0xFFFFFFFF00000000L;
+  // Lower 64 bits of an IPv4-mapped IPv6 address (::ffff:0:0/96)
+  private static final long IPV4_MAPPED = 0x0000FFFF00000000L;
+
+  /**
+   * @return the IPv4 address as an unsigned integer stored in a long
+   */
+  public long getIPv4(final @NotNull Inet4Address inetAddress) {
+    // The hash code of an IPv4 address is the address itself
+    return inetAddress.hashCode() & 0xFFFFFFFFL;
+  }
+
+  /**
+   * @return the lower 64 bits of the IPv4-mapped IPv6 address; the upper 64 bits are always 0
+   */
+  public long getIPv4Mapped(final @NotNull Inet4Address inetAddress) {
+    return IPV4_MAPPED | getIPv4(inetAddress);
+  }
+
+  /**
+   * @return 8 bytes of the raw address starting at the given offset as a long
+   */
+  public long pack(final byte @NotNull [] address, final int offset) {
+    long result = 0L;
+    for (int i = offset; i < offset + Long.BYTES; i++) {
+      result = (result << 8) | (address[i] & 0xFF);
+    }
+    return result;
+  }
+
+  /**
+   * Returns the network an address belongs to, packed into a long.
+   * IPv4 addresses are grouped by their /24 and IPv6 addresses by their /64,
+   * which is the smallest network a single party usually has control over.
+   */
+  public long getNetworkPrefix(final @NotNull InetAddress inetAddress) {
+    if (inetAddress instanceof Inet4Address) {
+      return IPV4_TAG | (getIPv4((Inet4Address) inetAddress) & 0xFFFFFF00L);
+    }
+    return getIPv6Prefix(inetAddress);
+  }
+
+  /**
+   * Returns the key of a single party: the full IPv4 address or the /64 of an IPv6 address,
+   * since every IPv6 customer usually controls (at least) a whole /64.
+   */
+  public long getHostKey(final @NotNull InetAddress inetAddress) {
+    if (inetAddress instanceof Inet4Address) {
+      return IPV4_TAG | getIPv4((Inet4Address) inetAddress);
+    }
+    return getIPv6Prefix(inetAddress);
+  }
+
+  /**
+   * Returns the key of the network a host usually belongs to:
+   * the /24 of an IPv4 address or the /48 of an IPv6 address.
+   */
+  public long getAggregateKey(final @NotNull InetAddress inetAddress) {
+    if (inetAddress instanceof Inet4Address) {
+      return IPV4_TAG | (getIPv4((Inet4Address) inetAddress) & 0xFFFFFF00L);
+    }
+    return getIPv6Prefix(inetAddress) & 0xFFFFFFFFFFFF0000L;
+  }
+
+  private long getIPv6Prefix(final @NotNull InetAddress inetAddress) {
+    return pack(inetAddress.getAddress(), 0);
+  }
+}
@@ -17,37 +17,91 @@
 
 package xyz.jonesdev.sonar.api.antibot;
 
-import com.github.benmanes.caffeine.cache.Cache;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.jetbrains.annotations.NotNull;
 import xyz.jonesdev.sonar.api.Sonar;
 import xyz.jonesdev.sonar.api.antibot.captcha.CaptchaGenerator;
 import xyz.jonesdev.sonar.api.antibot.ratelimit.Ratelimiter;
 import xyz.jonesdev.sonar.api.config.SonarConfiguration;
 
 import java.net.InetAddress;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 
 @Getter
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public final class AntiBot {
   public static final AntiBot INSTANCE = new AntiBot();
 
-  private final ConcurrentMap<InetAddress, Integer> online = new ConcurrentHashMap<>(128);
-  private final ConcurrentMap<InetAddress, Boolean> connected = new ConcurrentHashMap<>(256);
+  // Keep the maps private, so the way we store addresses can change without breaking the API
+  @Getter(AccessLevel.NONE)
+  private final AddressMap<Integer> online = new AddressMap<>();
+  @Getter(AccessLevel.NONE)
+  private final AddressMap<Boolean> connected = new AddressMap<>();
   private final LoginQueue queue = new LoginQueue();
+  private final ConnectionLimiter connectionLimiter = new ConnectionLimiter();
   @Setter
-  private Cache<String, Integer> blacklist;
-  @Setter
-  private long blacklistTime;
+  private Blacklist blacklist;
   @Setter
   private CaptchaGenerator captchaGenerator;
   @Setter
   private Ratelimiter<InetAddress> ratelimiter;
 
+  /**
+   * @return Number of accounts with the given IP address that are logged into the server
+   */
+  public int getOnlineCount(final @NotNull InetAddress inetAddress) {
+    final Integer count = online.get(inetAddress);
+    return count == null ? 0 : count;
+  }
+
+  /**
+   * Counts another account with the given IP address that is logging into the server
+   *
+   * @return New number of accounts with the given IP address
+   */
+  public int incrementOnline(final @NotNull InetAddress inetAddress) {
+    return online.compute(inetAddress, count -> count == null ? 1 : count + 1);
+  }
+
+  /**
+   * Stops counting an account with the given IP address that left the server
+   */
+  public void decrementOnline(final @NotNull InetAddress inetAddress) {
+    online.compute(inetAddress, count -> count == null || count <= 1 ? null : count - 1);
+  }
+
+  /**
+   * @return Whether a player with the given IP address is currently being verified
+   */
+  public boolean isConnected(final @NotNull InetAddress inetAddress) {
+    return connected.containsKey(inetAddress);
+  }
+
+  /**
+   * Marks a player with the given IP address as currently being verified
+   *
+   * @return False if a player with the same IP address was already being verified
+   */
+  public boolean addConnected(final @NotNull InetAddress inetAddress) {
+    return connected.putIfAbsent(inetAddress, Boolean.TRUE) == null;
+  }
+
+  /**
+   * @return False if no player with the given IP address was being verified
+   */
+  public boolean removeConnected(final @NotNull InetAddress inetAddress) {
+    return connected.remove(inetAddress) != null;
+  }
+
+  /**
+   * @return Number of players that are currently being verified
+   */
+  public int getConnectedCount() {
+    return connected.size();
+  }
+
   public boolean shouldVerifyNewPlayers() {
     return shouldPerform(Sonar.get0().getConfig().getVerification().getTiming());
   }
@@ -0,0 +1,289 @@
+/*
+ * Copyright (C) 2026 Sonar Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xyz.jonesdev.sonar.api.antibot;
+
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+
+import java.net.InetAddress;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Blacklist of hosts that failed the verification too often.
+ * <br>
+ * Hosts are tracked by their IPv4 address or their IPv6 /64. Once enough hosts of the same
+ * IPv4 /24 or IPv6 /48 have been blacklisted, the entire network is blacklisted as well.
+ * Entries expire once they haven't been updated for the configured amount of time.
+ */
+public final class Blacklist {
+  private static final int STRIPES = 16;
+  // Upper bound for the number of entries per level, so IPv6 attacks can't make the blacklist grow indefinitely
+  private static final int MAX_ENTRIES = 1 << 18;
+  private static final int MAX_ENTRIES_PER_STRIPE = MAX_ENTRIES / STRIPES;
+  // Arbitrarily high number for manually blacklisted hosts
+  private static final int MANUAL_SCORE = 1337;
+
+  @Getter
+  private final long expiry;
+  private final long origin = System.nanoTime();
+  private final long seed = ThreadLocalRandom.current().nextLong();
+  private final Table[] hosts = new Table[STRIPES];
+  private final Table[] networks = new Table[STRIPES];
+
+  public Blacklist(final long expiry, final @NotNull TimeUnit timeUnit) {
+    this.expiry = timeUnit.toMillis(expiry);
+    for (int i = 0; i < STRIPES; i++) {
+      hosts[i] = new Table();
+      networks[i] = new Table();
+    }
+  }
+
+  /**
+   * Increments the score of the host and escalates to the host's network if needed
+   *
+   * @param threshold Score at which a host is blacklisted
+   * @param escalation Number of blacklisted hosts at which their network is blacklisted (0 to disable)
+   * @return the new score of the host
+   */
+  public int fail(final @NotNull InetAddress inetAddress, final int threshold, final int escalation) {
+    final long now = now();
+    final long hostKey = AddressUtil.getHostKey(inetAddress);
+    final int score = stripe(hosts, hostKey).increment(hostKey, now, now + expiry);
+    // Only count the host towards the network's score once it crosses the threshold
+    if (escalation > 0 && score == threshold) {
+      final long networkKey = AddressUtil.getAggregateKey(inetAddress);
+      stripe(networks, networkKey).increment(networkKey, now, now + expiry);
+    }
+    return score;
+  }
+
+  /**
+   * Checks the host's network first and then the host itself
+   */
+  public boolean isBlacklisted(final @NotNull InetAddress inetAddress, final int threshold, final int escalation) {
+    final long now = now();
+    if (escalation > 0) {
+      final long networkKey = AddressUtil.getAggregateKey(inetAddress);
+      if (stripe(networks, networkKey).get(networkKey, now) >= escalation) {
+        return true;
+      }
+    }
+    final long hostKey = AddressUtil.getHostKey(inetAddress);
+    return stripe(hosts, hostKey).get(hostKey, now) >= threshold;
+  }
+
+  public boolean contains(final @NotNull InetAddress inetAddress) {
+    final long hostKey = AddressUtil.getHostKey(inetAddress);
+    return stripe(hosts, hostKey).get(hostKey, now()) > 0;
+  }
+
+  /**
+   * Manually blacklists the given host
+   */
+  public void add(final @NotNull InetAddress inetAddress) {
+    final long now = now();
+    final long hostKey = AddressUtil.getHostKey(inetAddress);
+    stripe(hosts, hostKey).put(hostKey, MANUAL_SCORE, now, now + expiry);
+  }
+
+  /**
+   * Removes the host as well as the host's network from the blacklist
+   *
+   * @return true if the host or its network was blacklisted
+   */
+  public boolean remove(final @NotNull InetAddress inetAddress) {
+    final long hostKey = AddressUtil.getHostKey(inetAddress);
+    final long networkKey = AddressUtil.getAggregateKey(inetAddress);
+    final boolean removedHost = stripe(hosts, hostKey).remove(hostKey);
+    return stripe(networks, networkKey).remove(networkKey) || removedHost;
+  }
+
+  /**
+   * @return the number of tracked hosts and networks
+   */
+  public long size() {
+    long size = 0L;
+    for (int i = 0; i < STRIPES; i++) {
+      size += hosts[i].size() + networks[i].size();
+    }
+    return size;
+  }
+
+  public void clear() {
+    for (int i = 0; i < STRIPES; i++) {
+      hosts[i].clear();
+      networks[i].clear();
+    }
+  }
+
+  public void cleanUp() {
+    final long now = now();
+    for (int i = 0; i < STRIPES; i++) {
+      hosts[i].removeExpired(now);
+      networks[i].removeExpired(now);
+    }
+  }
+
+  private long now() {
+    // Offset by one, so an expiry of 0 always means that the slot is empty
+    return (System.nanoTime() - origin) / 1_000_000L + 1L;
+  }
+
+  private int hash(final long key) {
+    final long hash = (key ^ seed) * 0x9E3779B97F4A7C15L;
+    return (int) (hash ^ (hash >>> 32));
+  }
+
+  private @NotNull Table stripe(final Table @NotNull [] tables, final long key) {
+    return tables[hash(key) >>> 28];
+  }
+
+  /**
+   * Open-addressing hash table with linear probing and backward-shift deletion
+   */
+  private final class Table {
+    private long[] keys = new long[16];
+    private int[] scores = new int[16];
+    private long[] expiries = new long[16];
+    private int size;
+
+    synchronized int size() {
+      return size;
+    }
+
+    synchronized int get(final long key, final long now) {
+      final int index = find(key);
+      return index < 0 || expiries[index] <= now ? 0 : scores[index];
+    }
+
+    synchronized int increment(final long key, final long now, final long expiry) {
+      final int index = find(key);
+      if (index >= 0) {
+        final int score = expiries[index] <= now ? 1 : scores[index] + 1;
+        scores[index] = score;
+        expiries[index] = expiry;
+        return score;
+      }
+      insert(key, 1, expiry, now);
+      return 1;
+    }
+
+    synchronized void put(final long key, final int score, final long now, final long expiry) {
+      final int index = find(key);
+      if (index >= 0) {
+        scores[index] = score;
+        expiries[index] = expiry;
+        return;
+      }
+      insert(key, score, expiry, now);
+    }
+
+    synchronized boolean remove(final long key) {
+      final int index = find(key);
+      if (index < 0) {
+        return false;
+      }
+      delete(index);
+      return true;
+    }
+
+    synchronized void clear() {
+      keys = new long[16];
+      scores = new int[16];
+      expiries = new long[16];
+      size = 0;
+    }
+
+    synchronized void removeExpired(final long now) {
+      for (int index = 0; index < expiries.length; ) {
+        if (expiries[index] != 0L && expiries[index] <= now) {
+          // Deleting shifts the next entry into this slot, so check it again
+          delete(index);
+        } else {
+          index++;
+        }
+      }
+    }
+
+    private int find(final long key) {
+      final int mask = keys.length - 1;
+      for (int index = hash(key) & mask; expiries[index] != 0L; index = (index + 1) & mask) {
+        if (keys[index] == key) {
+          return index;
+        }
+      }
+      return -1;
+    }
+
+    private void insert(final long key, final int score, final long expiry, final long now) {
+      if (size >= MAX_ENTRIES_PER_STRIPE) {
+        removeExpired(now);
+        // Stop tracking new entries once the stripe is full
+        if (size >= MAX_ENTRIES_PER_STRIPE) return;
+      }
+      if ((size + 1) * 4 > keys.length * 3) {
+        rehash(keys.length * 2, now);
+      }
+      final int mask = keys.length - 1;
+      int index = hash(key) & mask;
+      while (expiries[index] != 0L) {
+        index = (index + 1) & mask;
+      }
+      keys[index] = key;
+      scores[index] = score;
+      expiries[index] = expiry;
+      size++;
+    }
+
+    private void delete(int index) {
+      final int mask = keys.length - 1;
+      int next = index;
+      while (true) {
+        next = (next + 1) & mask;
+        if (expiries[next] == 0L) break;
+        final int home = hash(keys[next]) & mask;
+        // Move the entry into the gap if its home slot isn't cyclically between the gap and its slot
+        if (index <= next ? index >= home || home > next : index >= home && home > next) {
+          keys[index] = keys[next];
+          scores[index] = scores[next];
+          expiries[index] = expiries[next];
+          index = next;
+        }
+      }
+      expiries[index] = 0L;
+      size--;
+    }
+
+    private void rehash(final int capacity, final long now) {
+      final long[] oldKeys = keys;
+      final int[] oldScores = scores;
+      final long[] oldExpiries = expiries;
+      keys = new long[capacity];
+      scores = new int[capacity];
+      expiries = new long[capacity];
+      size = 0;
+      for (int i = 0; i < oldKeys.length; i++) {
+        // Drop expired entries while we're at it
+        if (oldExpiries[i] > now) {
+          insert(oldKeys[i], oldScores[i], oldExpiries[i], now);
+        }
+      }
+    }
+  }
+}
@@ -28,4 +28,5 @@ public interface ChannelPipelines {
   String SONAR_PACKET_DECODER = "sonar-packet-decoder";
   String SONAR_TAIL_EXCEPTIONS = "sonar-exception-tail";
   String SONAR_BANDWIDTH = "sonar-bandwidth-counter";
+  String SONAR_FLUSH_CONSOLIDATION = "sonar-flush-consolidation";
 }
@@ -0,0 +1,242 @@
+/*
+ * Copyright (C) 2026 Sonar Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xyz.jonesdev.sonar.api.antibot;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.NotNull;
+import xyz.jonesdev.sonar.api.Sonar;
+import xyz.jonesdev.sonar.api.config.SonarConfiguration;
+
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.util.concurrent.TimeUnit;
+
+@RequiredArgsConstructor(access = AccessLevel.PROTECTED)
+public final class ConnectionLimiter {
+  private static final long SECOND_NANOS = TimeUnit.SECONDS.toNanos(1L);
+
+  // Open connections (in total and per IP address) and rate of new connections per network
+  // (see AddressUtil#getNetworkPrefix), so every connection only needs to look up its network
+  private final AddressMap<Network> networks = new AddressMap<>();
+
+  /**
+   * @return true if any of the connection limits is configured
+   */
+  public boolean isEnabled() {
+    final SonarConfiguration.Connections config = Sonar.get0().getConfig().getConnections();
+    return config.getMaxPerIp() > 0 || config.getMaxPerNetwork() > 0 || config.getMaxNewPerNetwork() > 0;
+  }
+
+  /**
+   * Counts a new connection unless it exceeds any of the configured limits.
+   * Every acquired connection has to be released once it is closed.
+   *
+   * @return false if the connection exceeds a limit and hasn't been counted
+   */
+  public boolean acquire(final @NotNull InetAddress inetAddress) {
+    final SonarConfiguration.Connections config = Sonar.get0().getConfig().getConnections();
+    final long prefix = AddressUtil.getNetworkPrefix(inetAddress);
+    final long host = getHost(inetAddress);
+    final long now = System.nanoTime();
+    while (true) {
+      Network network = networks.get(prefix, 0L);
+      if (network == null) {
+        final Network created = new Network(now);
+        network = networks.putIfAbsent(prefix, 0L, created);
+        if (network == null) {
+          network = created;
+        }
+      }
+      synchronized (network) {
+        // Try again if the network has been cleaned up in the meantime
+        if (!network.removed) {
+          return network.acquire(host, now,
+            config.getMaxPerIp(), config.getMaxPerNetwork(), config.getMaxNewPerNetwork());
+        }
+      }
+    }
+  }
+
+  public void release(final @NotNull InetAddress inetAddress) {
+    // Networks with open connections are never cleaned up
+    final Network network = networks.get(AddressUtil.getNetworkPrefix(inetAddress), 0L);
+    if (network != null) {
+      synchronized (network) {
+        network.release(getHost(inetAddress));
+      }
+    }
+  }
+
+  /**
+   * Forgets about networks without open connections once they're no longer rate-limited
+   */
+  public void cleanUp() {
+    final long now = System.nanoTime();
+    networks.removeIf(network -> {
+      synchronized (network) {
+        if (!network.isIdle(now)) {
+          return false;
+        }
+        network.removed = true;
+        return true;
+      }
+    });
+  }
+
+  public void clear() {
+    networks.clear();
+  }
+
+  /**
+   * @return the part of the address that identifies the host within its network
+   */
+  private static long getHost(final @NotNull InetAddress inetAddress) {
+    if (inetAddress instanceof Inet4Address) {
+      return AddressUtil.getIPv4((Inet4Address) inetAddress) & 0xFFL;
+    }
+    return AddressUtil.pack(inetAddress.getAddress(), Long.BYTES);
+  }
+
+  /**
+   * Connections of a single network; only accessed while the network is locked
+   */
+  private static final class Network {
+    private int open;
+    // Theoretical arrival time of the next connection (generic cell rate algorithm)
+    private long nextConnection;
+    // Set once the network has been cleaned up, so it must not count any more connections
+    private boolean removed;
+    // Open-addressing table of the hosts and their open connections; a slot is empty if its count is 0
+    private long[] hosts = new long[4];
+    private int[] counts = new int[4];
+    private int size;
+
+    Network(final long now) {
+      this.nextConnection = now;
+    }
+
+    /**
+     * Counts the connection if neither the limits of open connections
+     * nor the rate of new connections is exceeded
+     */
+    boolean acquire(final long host, final long now,
+                    final int maxPerIp, final int maxOpen, final int maxNewPerSecond) {
+      final int index = find(host);
+      if (maxPerIp > 0 && index >= 0 && counts[index] >= maxPerIp) {
+        return false;
+      }
+      if (maxOpen > 0 && open >= maxOpen) {
+        return false;
+      }
+      if (maxNewPerSecond > 0) {
+        final long interval = SECOND_NANOS / maxNewPerSecond;
+        // Allow bursts of up to one second's worth of connections
+        final long tolerance = interval * maxNewPerSecond;
+        final long next = Math.max(nextConnection, now);
+        if (next - now > tolerance) {
+          return false;
+        }
+        nextConnection = next + interval;
+      }
+      if (index >= 0) {
+        counts[index]++;
+      } else {
+        insert(host);
+      }
+      open++;
+      return true;
+    }
+
+    void release(final long host) {
+      final int index = find(host);
+      // The connection hasn't been counted if the limiter has been cleared in the meantime
+      if (index < 0) {
+        return;
+      }
+      open--;
+      if (--counts[index] == 0) {
+        delete(index);
+      }
+    }
+
+    boolean isIdle(final long now) {
+      return open <= 0 && nextConnection - now <= 0L;
+    }
+
+    private static int slot(final long host, final int mask) {
+      return (int) ((host * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+
+    private int find(final long host) {
+      final int mask = hosts.length - 1;
+      for (int index = slot(host, mask); counts[index] != 0; index = (index + 1) & mask) {
+        if (hosts[index] == host) {
+          return index;
+        }
+      }
+      return -1;
+    }
+
+    private void insert(final long host) {
+      if ((size + 1) * 4 > hosts.length * 3) {
+        final long[] oldHosts = hosts;
+        final int[] oldCounts = counts;
+        hosts = new long[oldHosts.length * 2];
+        counts = new int[oldHosts.length * 2];
+        final int mask = hosts.length - 1;
+        for (int i = 0; i < oldHosts.length; i++) {
+          if (oldCounts[i] != 0) {
+            int index = slot(oldHosts[i], mask);
+            while (counts[index] != 0) {
+              index = (index + 1) & mask;
+            }
+            hosts[index] = oldHosts[i];
+            counts[index] = oldCounts[i];
+          }
+        }
+      }
+      final int mask = hosts.length - 1;
+      int index = slot(host, mask);
+      while (counts[index] != 0) {
+        index = (index + 1) & mask;
+      }
+      hosts[index] = host;
+      counts[index] = 1;
+      size++;
+    }
+
+    private void delete(int index) {
+      final int mask = hosts.length - 1;
+      int next = index;
+      while (true) {
+        next = (next + 1) & mask;
+        if (counts[next] == 0) break;
+        final int home = slot(hosts[next], mask);
+        // Move the entry into the gap if its home slot isn't cyclically between the gap and its slot
+        if (index <= next ? index >= home || home > next : index >= home && home > next) {
+          hosts[index] = hosts[next];
+          counts[index] = counts[next];
+          index = next;
+        }
+      }
+      counts[index] = 0;
+      size--;
+    }
+  }
+}
@@ -18,36 +18,215 @@
 package xyz.jonesdev.sonar.api.antibot;
 
 import lombok.AccessLevel;
-import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.NotNull;
 import xyz.jonesdev.sonar.api.Sonar;
+import xyz.jonesdev.sonar.api.config.SonarConfiguration;
 
 import java.net.InetAddress;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
-@Getter
 @RequiredArgsConstructor(access = AccessLevel.PROTECTED)
 public final class LoginQueue {
-  // Fixed thread pool executor for all new verifications
-  private static final int THREAD_POOL_SIZE = Math.min(0x7fff, Runtime.getRuntime().availableProcessors() * 2);
-  private static final ExecutorService QUEUE_EXECUTOR = Executors.newFixedThreadPool(THREAD_POOL_SIZE);
-
-  private final ConcurrentMap<InetAddress, Runnable> players = new ConcurrentHashMap<>(512);
-
-  public void poll() {
-    final int maxQueuePolls = Math.min(players.size(), Sonar.get0().getConfig().getQueue().getMaxQueuePolls());
-    // No need to initiate an executor service task if nobody is currently queued
-    if (maxQueuePolls <= 0) return;
-    // We need to be cautious here since we don't want any concurrency issues
-    QUEUE_EXECUTOR.execute(() -> {
-      final var iterator = players.entrySet().iterator();
-      for (int index = 0; index < maxQueuePolls && iterator.hasNext(); index++) {
-        iterator.next().getValue().run();
-        iterator.remove();
+  // Polls within this window may happen at once; anything beyond that is spread out evenly
+  private static final long BURST_NANOS = TimeUnit.MILLISECONDS.toNanos(100L);
+  private static final long SECOND_NANOS = TimeUnit.SECONDS.toNanos(1L);
+
+  private final AddressMap<Runnable> players = new AddressMap<>();
+  // Number of queued players per network (see AddressUtil#getNetworkPrefix)
+  private final AddressMap<Integer> networks = new AddressMap<>();
+  // Each event loop drains the players queued on its own channels
+  private final Map<ScheduledExecutorService, Lane> lanes = new ConcurrentHashMap<>();
+  // Theoretical arrival time of the next poll (generic cell rate algorithm)
+  private final AtomicLong nextPoll = new AtomicLong(System.nanoTime());
+
+  /**
+   * Queues the given action, which is then run by the given event loop
+   * as soon as the configured maximum queue polls per second allow it.
+   *
+   * @return false if the IP address has already been queued or the queue is full
+   */
+  public boolean offer(final @NotNull ScheduledExecutorService eventLoop,
+                       final @NotNull InetAddress inetAddress,
+                       final @NotNull Runnable action) {
+    if (isFull()) {
+      return false;
+    }
+    final SonarConfiguration.Queue config = Sonar.get0().getConfig().getQueue();
+    // Don't let a single network take up the queue for everyone else
+    final long network = AddressUtil.getNetworkPrefix(inetAddress);
+    final int queued = networks.compute(network, 0L, count -> count == null ? 1 : count + 1);
+    if (queued > config.getMaxPerNetwork()) {
+      release(network);
+      return false;
+    }
+    if (players.putIfAbsent(inetAddress, action) != null) {
+      release(network);
+      // Remove other instances of this IP address from the queue
+      remove(inetAddress);
+      return false;
+    }
+    lanes.computeIfAbsent(eventLoop, Lane::new).offer(new Entry(inetAddress, network, action));
+    return true;
+  }
+
+  /**
+   * @return the number of queued players
+   */
+  public int size() {
+    return players.size();
+  }
+
+  public boolean isFull() {
+    return players.size() >= Sonar.get0().getConfig().getQueue().getMaxSize();
+  }
+
+  /**
+   * Removes the IP address from the queue if it has been queued
+   *
+   * @return true if the IP address was queued
+   */
+  public boolean remove(final @NotNull InetAddress inetAddress) {
+    if (players.remove(inetAddress) != null) {
+      release(AddressUtil.getNetworkPrefix(inetAddress));
+      return true;
+    }
+    return false;
+  }
+
+  private void release(final long network) {
+    networks.compute(network, 0L, count -> count == null || count <= 1 ? null : count - 1);
+  }
+
+  /**
+   * @return the number of nanoseconds to wait until the next poll is allowed, or 0 if the poll is allowed
+   */
+  private long acquire() {
+    final long interval = SECOND_NANOS / Sonar.get0().getConfig().getQueue().getMaxQueuePolls();
+    final long tolerance = Math.max(BURST_NANOS - interval, 0L);
+    while (true) {
+      final long now = System.nanoTime();
+      final long next = nextPoll.get();
+      final long wait = next - now - tolerance;
+      if (wait > 0L) {
+        return wait;
+      }
+      if (nextPoll.compareAndSet(next, Math.max(next, now) + interval)) {
+        return 0L;
+      }
+    }
+  }
+
+  @RequiredArgsConstructor
+  private static final class Entry {
+    private final InetAddress inetAddress;
+    private final long network;
+    private final Runnable action;
+  }
+
+  @RequiredArgsConstructor
+  private static final class Network {
+    private final long prefix;
+    private final Queue<Entry> entries = new ArrayDeque<>();
+  }
+
+  @RequiredArgsConstructor
+  private final class Lane implements Runnable {
+    private final ScheduledExecutorService eventLoop;
+    // Entries can be queued from any thread but are only sorted into networks by the event loop
+    private final Queue<Entry> incoming = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    // Networks with at least one queued entry in round-robin order
+    private final Queue<Network> rotation = new ArrayDeque<>();
+    private final Map<Long, Network> networks = new HashMap<>();
+    private int size;
+
+    void offer(final @NotNull Entry entry) {
+      incoming.offer(entry);
+      if (scheduled.compareAndSet(false, true)) {
+        eventLoop.execute(this);
+      }
+    }
+
+    @Override
+    public void run() {
+      do {
+        sortIncoming();
+        Network network;
+        while ((network = rotation.peek()) != null) {
+          final Entry entry = network.entries.peek();
+          // Don't waste a poll on players that have disconnected in the meantime
+          if (players.get(entry.inetAddress) != entry.action) {
+            network.entries.poll();
+            size--;
+            if (network.entries.isEmpty()) {
+              rotation.poll();
+              networks.remove(network.prefix);
+            }
+            continue;
+          }
+          final long wait = acquire();
+          if (wait > 0L) {
+            // Keep the lane marked as scheduled and continue once the next poll is allowed
+            eventLoop.schedule(this, wait, TimeUnit.NANOSECONDS);
+            return;
+          }
+          network.entries.poll();
+          size--;
+          // Move on to the next network, so every network gets its fair share of polls
+          rotation.poll();
+          if (network.entries.isEmpty()) {
+            networks.remove(network.prefix);
+          } else {
+            rotation.offer(network);
+          }
+          if (players.remove(entry.inetAddress, entry.action)) {
+            release(entry.network);
+            try {
+              entry.action.run();
+            } catch (Throwable throwable) {
+              Sonar.get0().getLogger().error("Could not poll {} from the queue: {}", entry.inetAddress, throwable);
+            }
+          }
+          sortIncoming();
+        }
+        scheduled.set(false);
+        // Make sure we don't miss any players that were queued while we were finishing up
+      } while (!incoming.isEmpty() && scheduled.compareAndSet(false, true));
+    }
+
+    private void sortIncoming() {
+      Entry entry;
+      while ((entry = incoming.poll()) != null) {
+        Network network = networks.get(entry.network);
+        if (network == null) {
+          network = new Network(entry.network);
+          networks.put(entry.network, network);
+          rotation.offer(network);
+        }
+        network.entries.offer(entry);
+        size++;
+      }
+      // Players that disconnect while queued leave stale entries behind, so make sure
+      // these don't pile up while the lane is waiting for the next poll
+      if (size > Sonar.get0().getConfig().getQueue().getMaxSize() * 2) {
+        rotation.removeIf(queued -> {
+          size -= queued.entries.size();
+          queued.entries.removeIf(stale -> players.get(stale.inetAddress) != stale.action);
+          size += queued.entries.size();
+          if (queued.entries.isEmpty()) {
+            networks.remove(queued.prefix);
+            return true;
+          }
+          return false;
+        });
       }
-    });
+    }
   }
 }
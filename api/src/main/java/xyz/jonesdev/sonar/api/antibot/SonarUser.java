@@ -36,7 +36,15 @@ public interface SonarUser {
 
   @NotNull SystemTimer getLoginTimer();
 
-  @NotNull String getFingerprint();
+  /**
+   * Returns a hash of the username and IP address, which is used to remember verified players.
+   * <br>
+   * This used to be a hex string; fingerprints are 64-bit SipHash values now and depend on a random key
+   * that is stored in the database, so they can't be compared with fingerprints of other installations.
+   *
+   * @see xyz.jonesdev.sonar.api.fingerprint.FingerprintingUtil#getFingerprint(String, InetAddress)
+   */
+  long getFingerprint();
 
   @NotNull String getUsername();
 
@@ -25,6 +25,8 @@
 import xyz.jonesdev.sonar.api.Sonar;
 import xyz.jonesdev.sonar.api.command.InvocationSource;
 
+import java.net.InetAddress;
+import java.net.UnknownHostException;
 import java.util.Objects;
 import java.util.regex.Pattern;
 
@@ -55,6 +57,15 @@ public Subcommand() {
     return raw;
   }
 
+  protected static @NotNull InetAddress toInetAddress(final @NotNull String rawAddress) {
+    try {
+      // This won't perform a lookup if the IP address has been validated using #validateIP
+      return InetAddress.getByName(rawAddress);
+    } catch (UnknownHostException exception) {
+      throw new IllegalArgumentException(exception);
+    }
+  }
+
   protected final void incorrectUsage(final @NotNull InvocationSource invocationSource) {
     incorrectUsage(invocationSource, info.name() + " (" + arguments + ")");
   }
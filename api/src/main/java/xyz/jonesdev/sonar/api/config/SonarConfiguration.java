@@ -141,6 +141,7 @@ public void loadValues() {
     // General settings
     logPlayerAddresses = generalConfig.getBoolean("general.log-player-addresses");
     maxOnlinePerIp = clamp(generalConfig.getInt("general.max-online-per-ip"), -1, 99);
+    countPlayerTraffic = generalConfig.getBoolean("general.count-player-traffic");
 
     // Attack tracker
     minPlayersForAttack = clamp(generalConfig.getInt("attack-tracker.min-players-for-attack"), 2, 1024);
@@ -151,9 +152,18 @@ public void loadValues() {
     // Database
     database.type = Database.Type.valueOf(generalConfig.getString("database.type").toUpperCase());
     database.maximumAge = clamp(generalConfig.getInt("database.maximum-age"), 1, 365);
+    database.cacheSize = clamp(generalConfig.getInt("database.cache-size"), 0, 100000000);
+    database.syncInterval = clamp(generalConfig.getInt("database.sync-interval"), 0, 3600000);
+
+    // Connections
+    connections.maxPerIp = clamp(generalConfig.getInt("connections.max-per-ip"), 0, 1000);
+    connections.maxPerNetwork = clamp(generalConfig.getInt("connections.max-per-network"), 0, 100000);
+    connections.maxNewPerNetwork = clamp(generalConfig.getInt("connections.max-new-per-network"), 0, 10000);
 
     // Queue
     queue.maxQueuePolls = clamp(generalConfig.getInt("queue.max-polls"), 1, 1000);
+    queue.maxSize = clamp(generalConfig.getInt("queue.max-size"), 100, 100000);
+    queue.maxPerNetwork = clamp(generalConfig.getInt("queue.max-per-network"), 1, 1000);
 
     // Verification
     verification.timing = Verification.Timing.valueOf(generalConfig.getString("verification.timing"));
@@ -210,9 +220,14 @@ public void loadValues() {
     verification.writeTimeout = clamp(generalConfig.getInt("verification.write-timeout"), 1000, 30000);
     verification.maxPacketCount = clamp(generalConfig.getInt("verification.max-packets"), 200, 9999);
     verification.reconnectDelay = clamp(generalConfig.getInt("verification.rejoin-delay"), 0, 100000);
-    verification.rememberTime = clamp(generalConfig.getInt("verification.remember-time"), 0, 86400000);
+    verification.reconnectBackoff = generalConfig.getBoolean("verification.rejoin-backoff");
+    // Older configurations still contain the previous default of 2 minutes, which would make Sonar
+    // forget verified players almost immediately, so the time is never shorter than an hour
+    final int rememberTime = generalConfig.getInt("verification.remember-time");
+    verification.rememberTime = rememberTime <= 0 ? 0 : clamp(rememberTime, 3600000, 604800000);
     verification.blacklistTime = clamp(generalConfig.getInt("verification.blacklist-time"), 0, 86400000);
     verification.blacklistThreshold = clamp(generalConfig.getInt("verification.blacklist-threshold"), 0, 100);
+    verification.blacklistEscalation = clamp(generalConfig.getInt("verification.blacklist-escalation"), 0, 256);
     verification.blacklistedProtocols.clear();
     verification.blacklistedProtocols.addAll(generalConfig.getIntList("verification.blacklisted-protocols"));
 
@@ -314,6 +329,8 @@ private static int clamp(final int v, final int max, final int min) {
     return logPlayerAddresses ? inetAddress.getHostAddress() : "<ip address withheld>";
   }
 
+  @Getter
+  private final Connections connections = new Connections();
   @Getter
   private final Queue queue = new Queue();
   @Getter
@@ -334,6 +351,8 @@ private static int clamp(final int v, final int max, final int min) {
   @Getter
   private int maxOnlinePerIp;
   @Getter
+  private boolean countPlayerTraffic;
+  @Getter
   private int minPlayersForAttack;
   @Getter
   private int minAttackDuration;
@@ -346,10 +365,20 @@ private static int clamp(final int v, final int max, final int min) {
   @Getter
   private List<String> verboseAnimation;
 
+  @Getter
+  @NoArgsConstructor(access = AccessLevel.PRIVATE)
+  public static final class Connections {
+    private int maxPerIp;
+    private int maxPerNetwork;
+    private int maxNewPerNetwork;
+  }
+
   @Getter
   @NoArgsConstructor(access = AccessLevel.PRIVATE)
   public static final class Queue {
     private int maxQueuePolls;
+    private int maxSize;
+    private int maxPerNetwork;
   }
 
   @Getter
@@ -433,9 +462,11 @@ public boolean isSurvivalOrAdventure() {
     private int writeTimeout;
     private int maxPacketCount;
     private int reconnectDelay;
+    private boolean reconnectBackoff;
     private int rememberTime;
     private int blacklistTime;
     private int blacklistThreshold;
+    private int blacklistEscalation;
     private final Collection<Integer> blacklistedProtocols = new HashSet<>(0);
 
     private Component tooFastReconnect;
@@ -485,6 +516,8 @@ public enum Type {
           .version("42.7.8")
           .relocate("org{}postgresql", "xyz{}jonesdev{}sonar{}libs{}postgresql")
           .build()),
+      // Embedded storage that doesn't need JDBC or a driver
+      FILE("File", null, null, null),
       NONE("None", null, null, null);
 
       private final String displayName;
@@ -497,6 +530,8 @@ public enum Type {
 
     private Type type;
     private int maximumAge;
+    private int cacheSize;
+    private int syncInterval;
   }
 
   @Getter
@@ -0,0 +1,706 @@
+/*
+ * Copyright (C) 2026 Sonar Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xyz.jonesdev.sonar.api.database.controller;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import xyz.jonesdev.sonar.api.Sonar;
+import xyz.jonesdev.sonar.api.database.model.VerifiedPlayer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongConsumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Stores the verified players in files, so no JDBC driver has to be loaded.
+ * <br>
+ * Changes are appended to a log and kept in memory until there are enough of them to be written
+ * to a new segment. Segments are files of fingerprints and timestamps sorted by the fingerprint,
+ * which are memory-mapped and searched using a binary search. Newer segments take precedence over
+ * older ones; removed players are kept as tombstones until all segments are merged into one.
+ * <br>
+ * The manifest lists the segments that are in use, so segments that are only partially written
+ * or have been merged into another segment are never read again. The key used to calculate
+ * fingerprints is stored in a separate file, since it has to survive clearing the players.
+ */
+final class FileVerifiedPlayerStorage implements VerifiedPlayerStorage {
+  private static final long REMOVED = Long.MIN_VALUE;
+  // Timestamps are always positive, so this can never be a timestamp
+  private static final long MISSING = 0L;
+  // Number of changes kept in memory before they're written to a new segment
+  private static final int MEMTABLE_LIMIT = 1 << 16;
+  // Merge all segments into one once there are more than this many
+  private static final int MAX_SEGMENTS = 4;
+  // Magic number, version, number of entries, oldest timestamp
+  private static final int SEGMENT_MAGIC = 0x534F4E52;
+  private static final int SEGMENT_VERSION = 1;
+  private static final int SEGMENT_HEADER_SIZE = 24;
+  // Fingerprint, timestamp, checksum
+  private static final int LOG_RECORD_SIZE = 20;
+  private static final String LOG_FILE = "changes.log";
+  private static final String MANIFEST_FILE = "manifest";
+  private static final String KEY_FILE = "fingerprint.key";
+  private static final String SEGMENT_PREFIX = "segment-";
+  private static final String SEGMENT_SUFFIX = ".dat";
+
+  private final File directory;
+  private FileChannel log;
+  // Changes that have been written to the log since the last segment was written
+  private volatile Map<Long, Long> memtable = new ConcurrentHashMap<>();
+  // Newest segment first; replaced as a whole, so lookups never have to lock
+  private volatile List<Segment> segments = List.of();
+  // Number of players that are stored and haven't been removed; only changed while holding the lock
+  private volatile long liveCount;
+  private long nextGeneration;
+
+  FileVerifiedPlayerStorage(final @NotNull File directory) {
+    this.directory = directory;
+  }
+
+  @Override
+  public synchronized void open() throws IOException {
+    if (!directory.isDirectory() && !directory.mkdirs()) {
+      throw new IOException("Could not create " + directory);
+    }
+
+    final List<Long> generations = readManifest();
+    // Remove everything left behind by compactions that didn't finish
+    final File[] files = directory.listFiles();
+    if (files != null) {
+      for (final File file : files) {
+        final String name = file.getName();
+        if (name.endsWith(".tmp")
+          || name.startsWith(SEGMENT_PREFIX) && !generations.contains(parseGeneration(name))) {
+          Files.deleteIfExists(file.toPath());
+        }
+      }
+    }
+
+    final List<Segment> segments = new ArrayList<>(generations.size());
+    for (final long generation : generations) {
+      segments.add(Segment.map(segmentFile(generation), generation));
+      nextGeneration = Math.max(nextGeneration, generation + 1);
+    }
+    this.segments = List.copyOf(segments);
+
+    log = FileChannel.open(new File(directory, LOG_FILE).toPath(),
+      StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    replayLog();
+
+    // Tombstones and players that are in more than one source must not be counted
+    final long[] live = new long[1];
+    merge(sources(), (fingerprint, timestamp) -> {
+      if (timestamp != REMOVED) {
+        live[0]++;
+      }
+    });
+    liveCount = live[0];
+  }
+
+  @Override
+  public synchronized byte @NotNull [] loadKey(final byte @NotNull [] generated) throws IOException {
+    final File file = new File(directory, KEY_FILE);
+    if (file.exists()) {
+      return HexFormat.of().parseHex(Files.readString(file.toPath(), StandardCharsets.UTF_8).trim());
+    }
+    writeAtomically(file, HexFormat.of().formatHex(generated));
+    return generated;
+  }
+
+  @Override
+  public long count() {
+    return liveCount;
+  }
+
+  @Override
+  public synchronized int load(final @NotNull LongConsumer consumer) throws IOException {
+    final int[] loaded = new int[1];
+    merge(sources(), (fingerprint, timestamp) -> {
+      if (timestamp != REMOVED) {
+        consumer.accept(fingerprint);
+        loaded[0]++;
+      }
+    });
+    return loaded[0];
+  }
+
+  @Override
+  public boolean contains(final long fingerprint) {
+    final long timestamp = getTimestamp(fingerprint);
+    return timestamp != MISSING && timestamp != REMOVED;
+  }
+
+  @Override
+  public @NotNull Map<Long, Long> getTimestamps(final @NotNull Collection<Long> fingerprints) {
+    final Map<Long, Long> timestamps = new HashMap<>();
+    for (final long fingerprint : fingerprints) {
+      final long timestamp = getTimestamp(fingerprint);
+      if (timestamp != MISSING && timestamp != REMOVED) {
+        timestamps.put(fingerprint, timestamp);
+      }
+    }
+    return timestamps;
+  }
+
+  /**
+   * Reads the players ordered by their fingerprint
+   */
+  @Override
+  public @NotNull VerifiedPlayerPage page(final @Nullable VerifiedPlayerPage previous,
+                                         final int limit) throws IOException {
+    final List<Entries> sources = sources();
+    final int[] positions = new int[sources.size()];
+    if (previous != null) {
+      for (int i = 0; i < positions.length; i++) {
+        positions[i] = sources.get(i).indexAfter(previous.getCursor());
+      }
+    }
+    final List<VerifiedPlayer> players = new ArrayList<>(limit);
+    final long[] cursor = {previous == null ? Long.MIN_VALUE : previous.getCursor()};
+    final int merged = merge(sources, positions, limit, (fingerprint, timestamp) -> {
+      cursor[0] = fingerprint;
+      if (timestamp != REMOVED) {
+        players.add(new VerifiedPlayer(fingerprint, timestamp));
+      }
+    });
+    return new VerifiedPlayerPage(players, cursor[0], merged < limit);
+  }
+
+  @Override
+  public synchronized void write(final @NotNull List<Map.Entry<Long, Long>> changes) throws IOException {
+    final ByteBuffer buffer = ByteBuffer.allocate(changes.size() * LOG_RECORD_SIZE);
+    for (final Map.Entry<Long, Long> change : changes) {
+      buffer.putLong(change.getKey());
+      buffer.putLong(change.getValue());
+      buffer.putInt(checksum(change.getKey(), change.getValue()));
+    }
+    buffer.flip();
+
+    final long position = log.position();
+    try {
+      while (buffer.hasRemaining()) {
+        log.write(buffer);
+      }
+      // Only report the changes as saved once they are on the disk
+      log.force(false);
+    } catch (IOException exception) {
+      // Don't leave an incomplete record in front of the records written by the next attempt
+      log.truncate(position);
+      throw exception;
+    }
+
+    final Map<Long, Long> memtable = this.memtable;
+    long liveCount = this.liveCount;
+    for (final Map.Entry<Long, Long> change : changes) {
+      final long previous = getTimestamp(change.getKey());
+      final boolean wasLive = previous != MISSING && previous != REMOVED;
+      final boolean isLive = change.getValue() != REMOVED;
+      if (wasLive != isLive) {
+        liveCount += isLive ? 1 : -1;
+      }
+      memtable.put(change.getKey(), change.getValue());
+    }
+    this.liveCount = liveCount;
+    if (memtable.size() >= MEMTABLE_LIMIT) {
+      flushMemtable();
+      if (segments.size() > MAX_SEGMENTS) {
+        compact(Long.MIN_VALUE, null);
+      }
+    }
+  }
+
+  /**
+   * Merges all segments into one and drops the expired players as well as the tombstones.
+   * Nothing is rewritten if no player has expired.
+   */
+  @Override
+  public synchronized int removeExpired(final long timestamp, final @Nullable LongConsumer removed) throws IOException {
+    boolean expired = false;
+    for (final long value : memtable.values()) {
+      expired |= value != REMOVED && value < timestamp;
+    }
+    for (final Segment segment : segments) {
+      expired |= segment.getOldestTimestamp() < timestamp;
+    }
+    if (!expired) {
+      return 0;
+    }
+    flushMemtable();
+    return compact(timestamp, removed);
+  }
+
+  @Override
+  public synchronized void clear() throws IOException {
+    final List<Segment> oldSegments = segments;
+    writeManifest(List.of());
+    segments = List.of();
+    memtable = new ConcurrentHashMap<>();
+    liveCount = 0L;
+    log.truncate(0L);
+    log.force(true);
+    deleteSegments(oldSegments);
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    // The segments are unmapped once they're no longer referenced
+    log.force(true);
+    log.close();
+  }
+
+  /**
+   * @return the timestamp of the fingerprint, {@link #REMOVED}, or {@link #MISSING}
+   */
+  private long getTimestamp(final long fingerprint) {
+    // The memtable is always replaced after the segments, so no change can be missed
+    final Long timestamp = memtable.get(fingerprint);
+    if (timestamp != null) {
+      return timestamp;
+    }
+    for (final Segment segment : segments) {
+      final long value = segment.get(fingerprint);
+      if (value != MISSING) {
+        return value;
+      }
+    }
+    return MISSING;
+  }
+
+  private void replayLog() throws IOException {
+    final long size = log.size();
+    final ByteBuffer buffer = ByteBuffer.allocate(LOG_RECORD_SIZE * 4096);
+    final Map<Long, Long> memtable = this.memtable;
+    long valid = 0L;
+
+    read:
+    while (valid + LOG_RECORD_SIZE <= size) {
+      buffer.clear();
+      if (log.read(buffer, valid) < LOG_RECORD_SIZE) {
+        break;
+      }
+      buffer.flip();
+      while (buffer.remaining() >= LOG_RECORD_SIZE) {
+        final long fingerprint = buffer.getLong();
+        final long timestamp = buffer.getLong();
+        if (buffer.getInt() != checksum(fingerprint, timestamp)) {
+          break read;
+        }
+        memtable.put(fingerprint, timestamp);
+        valid += LOG_RECORD_SIZE;
+      }
+    }
+
+    // The last records might not have been written completely if the server crashed
+    if (valid < size) {
+      Sonar.get0().getLogger().warn("Discarding {} bytes of incomplete changes to verified players.", size - valid);
+      log.truncate(valid);
+    }
+    log.position(valid);
+  }
+
+  /**
+   * Writes the memtable to a new segment and starts a new log
+   */
+  private void flushMemtable() throws IOException {
+    final Map<Long, Long> memtable = this.memtable;
+    if (memtable.isEmpty()) {
+      return;
+    }
+
+    final Segment segment = writeSegment(writer -> merge(List.of(SortedEntries.of(memtable)), writer));
+    final List<Segment> segments = new ArrayList<>(this.segments.size() + 1);
+    segments.add(segment);
+    segments.addAll(this.segments);
+    writeManifest(segments);
+    this.segments = List.copyOf(segments);
+    this.memtable = new ConcurrentHashMap<>();
+    // Replaying the old log again after a crash wouldn't change anything, since the changes are in the segment
+    log.truncate(0L);
+    log.force(true);
+  }
+
+  /**
+   * Merges all segments into a single segment without tombstones
+   *
+   * @return the number of players that were verified before the given timestamp and have been removed
+   */
+  private int compact(final long timestamp, final @Nullable LongConsumer removed) throws IOException {
+    final List<Segment> oldSegments = segments;
+    if (oldSegments.isEmpty()) {
+      return 0;
+    }
+
+    final int[] expired = new int[1];
+    final Segment segment = writeSegment(writer -> merge(oldSegments, (fingerprint, value) -> {
+      if (value == REMOVED) {
+        return;
+      }
+      if (value < timestamp) {
+        expired[0]++;
+        if (removed != null) {
+          removed.accept(fingerprint);
+        }
+        return;
+      }
+      writer.accept(fingerprint, value);
+    }));
+    writeManifest(List.of(segment));
+    segments = List.of(segment);
+    // Only flushed changes are compacted, so the segment contains every live player
+    liveCount = segment.size();
+    deleteSegments(oldSegments);
+    return expired[0];
+  }
+
+  private @NotNull List<Entries> sources() {
+    final List<Entries> sources = new ArrayList<>(segments.size() + 1);
+    sources.add(SortedEntries.of(memtable));
+    sources.addAll(segments);
+    return sources;
+  }
+
+  private @NotNull Segment writeSegment(final @NotNull SegmentTask task) throws IOException {
+    final long generation = nextGeneration++;
+    final File file = segmentFile(generation);
+    final File temporary = new File(directory, file.getName() + ".tmp");
+
+    try (final FileChannel channel = FileChannel.open(temporary.toPath(),
+      StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+      final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+      final long[] header = {0L, Long.MAX_VALUE};
+      channel.position(SEGMENT_HEADER_SIZE);
+      task.run((fingerprint, timestamp) -> {
+        if (buffer.remaining() < Long.BYTES * 2) {
+          drain(channel, buffer);
+        }
+        buffer.putLong(fingerprint);
+        buffer.putLong(timestamp);
+        header[0]++;
+        if (timestamp != REMOVED) {
+          header[1] = Math.min(header[1], timestamp);
+        }
+      });
+      drain(channel, buffer);
+
+      buffer.putInt(SEGMENT_MAGIC);
+      buffer.putInt(SEGMENT_VERSION);
+      buffer.putLong(header[0]);
+      buffer.putLong(header[1]);
+      buffer.flip();
+      while (buffer.hasRemaining()) {
+        channel.write(buffer, SEGMENT_HEADER_SIZE - buffer.remaining());
+      }
+      channel.force(true);
+    }
+    Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+    return Segment.map(file, generation);
+  }
+
+  private @NotNull List<Long> readManifest() throws IOException {
+    final File file = new File(directory, MANIFEST_FILE);
+    if (!file.exists()) {
+      return List.of();
+    }
+    final List<Long> generations = new ArrayList<>();
+    for (final String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+      if (!line.isBlank()) {
+        generations.add(Long.parseLong(line.trim()));
+      }
+    }
+    return generations;
+  }
+
+  private void writeManifest(final @NotNull List<Segment> segments) throws IOException {
+    final StringBuilder content = new StringBuilder();
+    for (final Segment segment : segments) {
+      content.append(segment.getGeneration()).append('\n');
+    }
+    // Replacing the manifest is what actually switches to the new segments
+    writeAtomically(new File(directory, MANIFEST_FILE), content.toString());
+  }
+
+  /**
+   * Writes the content to a temporary file first, so the file is never only partially written
+   */
+  private void writeAtomically(final @NotNull File file, final @NotNull String content) throws IOException {
+    final File temporary = new File(directory, file.getName() + ".tmp");
+    try (final FileChannel channel = FileChannel.open(temporary.toPath(),
+      StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+      final ByteBuffer buffer = ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8));
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      channel.force(true);
+    }
+    Files.move(temporary.toPath(), file.toPath(),
+      StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+  }
+
+  private void deleteSegments(final @NotNull List<Segment> segments) {
+    for (final Segment segment : segments) {
+      try {
+        Files.deleteIfExists(segment.getFile().toPath());
+      } catch (IOException exception) {
+        // Some systems don't allow deleting mapped files; the file is deleted on the next start instead
+        Sonar.get0().getLogger().warn("Could not delete {}: {}", segment.getFile().getName(), exception);
+      }
+    }
+  }
+
+  private @NotNull File segmentFile(final long generation) {
+    return new File(directory, SEGMENT_PREFIX + generation + SEGMENT_SUFFIX);
+  }
+
+  private static long parseGeneration(final @NotNull String name) {
+    if (!name.endsWith(SEGMENT_SUFFIX)) {
+      return -1L;
+    }
+    try {
+      return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    } catch (NumberFormatException exception) {
+      return -1L;
+    }
+  }
+
+  private static void drain(final @NotNull FileChannel channel, final @NotNull ByteBuffer buffer) throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    buffer.clear();
+  }
+
+  private static int checksum(final long fingerprint, final long timestamp) {
+    final CRC32C checksum = new CRC32C();
+    checksum.update(ByteBuffer.allocate(Long.BYTES * 2).putLong(fingerprint).putLong(timestamp).flip());
+    return (int) checksum.getValue();
+  }
+
+  /**
+   * Merges the sorted sources into a single sorted sequence.
+   * If multiple sources contain the same fingerprint, the first source wins.
+   */
+  private static void merge(final @NotNull List<? extends Entries> sources,
+                            final @NotNull EntryConsumer consumer) throws IOException {
+    merge(sources, new int[sources.size()], Integer.MAX_VALUE, consumer);
+  }
+
+  /**
+   * @param positions Index of the next entry of each source
+   * @param limit Maximum number of merged entries
+   * @return the number of merged entries
+   */
+  private static int merge(final @NotNull List<? extends Entries> sources,
+                           final int @NotNull [] positions,
+                           final int limit,
+                           final @NotNull EntryConsumer consumer) throws IOException {
+    int merged = 0;
+    while (merged < limit) {
+      int first = -1;
+      long fingerprint = 0L;
+      for (int i = 0; i < positions.length; i++) {
+        final Entries source = sources.get(i);
+        if (positions[i] < source.size()) {
+          final long value = source.getFingerprint(positions[i]);
+          if (first == -1 || value < fingerprint) {
+            first = i;
+            fingerprint = value;
+          }
+        }
+      }
+      if (first == -1) {
+        break;
+      }
+      final long timestamp = sources.get(first).getTimestamp(positions[first]);
+      for (int i = 0; i < positions.length; i++) {
+        final Entries source = sources.get(i);
+        if (positions[i] < source.size() && source.getFingerprint(positions[i]) == fingerprint) {
+          positions[i]++;
+        }
+      }
+      consumer.accept(fingerprint, timestamp);
+      merged++;
+    }
+    return merged;
+  }
+
+  @FunctionalInterface
+  private interface EntryConsumer {
+    void accept(final long fingerprint, final long timestamp) throws IOException;
+  }
+
+  @FunctionalInterface
+  private interface SegmentTask {
+    void run(final @NotNull EntryConsumer writer) throws IOException;
+  }
+
+  /**
+   * Fingerprints and their timestamps, sorted by the fingerprint
+   */
+  private interface Entries {
+    int size();
+
+    long getFingerprint(final int index);
+
+    long getTimestamp(final int index);
+
+    /**
+     * @return the index of the first fingerprint greater than the given fingerprint
+     */
+    default int indexAfter(final long fingerprint) {
+      int low = 0;
+      int high = size();
+      while (low < high) {
+        final int middle = (low + high) >>> 1;
+        if (getFingerprint(middle) <= fingerprint) {
+          low = middle + 1;
+        } else {
+          high = middle;
+        }
+      }
+      return low;
+    }
+  }
+
+  @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+  private static final class SortedEntries implements Entries {
+    private final long[] fingerprints;
+    private final long[] timestamps;
+
+    static @NotNull SortedEntries of(final @NotNull Map<Long, Long> changes) {
+      final long[] fingerprints = new long[changes.size()];
+      int size = 0;
+      for (final long fingerprint : changes.keySet()) {
+        if (size == fingerprints.length) {
+          break;
+        }
+        fingerprints[size++] = fingerprint;
+      }
+      Arrays.sort(fingerprints, 0, size);
+      final long[] timestamps = new long[size];
+      int valid = 0;
+      for (int i = 0; i < size; i++) {
+        // The entry might have been removed from the map in the meantime
+        final Long timestamp = changes.get(fingerprints[i]);
+        if (timestamp != null) {
+          fingerprints[valid] = fingerprints[i];
+          timestamps[valid++] = timestamp;
+        }
+      }
+      return new SortedEntries(Arrays.copyOf(fingerprints, valid), Arrays.copyOf(timestamps, valid));
+    }
+
+    @Override
+    public int size() {
+      return fingerprints.length;
+    }
+
+    @Override
+    public long getFingerprint(final int index) {
+      return fingerprints[index];
+    }
+
+    @Override
+    public long getTimestamp(final int index) {
+      return timestamps[index];
+    }
+  }
+
+  /**
+   * Memory-mapped segment; the mapping stays valid after the file has been closed
+   */
+  @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+  private static final class Segment implements Entries {
+    @Getter
+    private final long generation;
+    @Getter
+    private final File file;
+    private final LongBuffer entries;
+    private final int size;
+    @Getter
+    private final long oldestTimestamp;
+
+    static @NotNull Segment map(final @NotNull File file, final long generation) throws IOException {
+      try (final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+        final long length = channel.size();
+        if (length < SEGMENT_HEADER_SIZE || length > Integer.MAX_VALUE) {
+          throw new IOException("Invalid segment size of " + file.getName() + ": " + length);
+        }
+        final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0L, length);
+        final long size = buffer.getLong(8);
+        if (buffer.getInt(0) != SEGMENT_MAGIC || buffer.getInt(4) != SEGMENT_VERSION
+          || SEGMENT_HEADER_SIZE + size * Long.BYTES * 2 != length) {
+          throw new IOException("Invalid segment header of " + file.getName());
+        }
+        return new Segment(generation, file, buffer.slice(SEGMENT_HEADER_SIZE, (int) length - SEGMENT_HEADER_SIZE)
+          .asLongBuffer(), (int) size, buffer.getLong(16));
+      }
+    }
+
+    /**
+     * Binary search for the fingerprint
+     *
+     * @return the timestamp of the fingerprint or {@link #MISSING}
+     */
+    long get(final long fingerprint) {
+      int low = 0;
+      int high = size - 1;
+      while (low <= high) {
+        final int middle = (low + high) >>> 1;
+        final long value = entries.get(middle * 2);
+        if (value < fingerprint) {
+          low = middle + 1;
+        } else if (value > fingerprint) {
+          high = middle - 1;
+        } else {
+          return entries.get(middle * 2 + 1);
+        }
+      }
+      return MISSING;
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+
+    @Override
+    public long getFingerprint(final int index) {
+      return entries.get(index * 2);
+    }
+
+    @Override
+    public long getTimestamp(final int index) {
+      return entries.get(index * 2 + 1);
+    }
+  }
+}
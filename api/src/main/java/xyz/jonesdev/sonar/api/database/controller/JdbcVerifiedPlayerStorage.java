@@ -0,0 +1,468 @@
+/*
+ * Copyright (C) 2026 Sonar Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xyz.jonesdev.sonar.api.database.controller;
+
+import com.alessiodp.libby.LibraryManager;
+import com.j256.ormlite.dao.CloseableIterator;
+import com.j256.ormlite.dao.Dao;
+import com.j256.ormlite.dao.DaoManager;
+import com.j256.ormlite.jdbc.JdbcConnectionSource;
+import com.j256.ormlite.jdbc.JdbcDatabaseConnection;
+import com.j256.ormlite.jdbc.JdbcPooledConnectionSource;
+import com.j256.ormlite.stmt.DeleteBuilder;
+import com.j256.ormlite.support.ConnectionSource;
+import com.j256.ormlite.support.DatabaseConnection;
+import com.j256.ormlite.table.DatabaseTableConfig;
+import com.j256.ormlite.table.TableUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import xyz.jonesdev.sonar.api.Sonar;
+import xyz.jonesdev.sonar.api.config.SonarConfiguration;
+import xyz.jonesdev.sonar.api.database.model.LegacyVerifiedPlayer;
+import xyz.jonesdev.sonar.api.database.model.SchemaVersion;
+import xyz.jonesdev.sonar.api.database.model.StoredProperty;
+import xyz.jonesdev.sonar.api.database.model.VerifiedPlayer;
+import xyz.jonesdev.sonar.api.database.model.VerifiedPlayerRemoval;
+import xyz.jonesdev.sonar.api.fingerprint.FingerprintSet;
+import xyz.jonesdev.sonar.api.fingerprint.FingerprintingUtil;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.function.LongConsumer;
+
+/**
+ * Stores the verified players in an SQL database using ORMLite and the JDBC driver of the database
+ */
+final class JdbcVerifiedPlayerStorage implements VerifiedPlayerStorage {
+  // Version 1: unique fingerprints and an index on the timestamp
+  private static final int SCHEMA_VERSION = 1;
+  // Name of the property holding the key used to calculate fingerprints
+  private static final String FINGERPRINT_KEY = "fingerprint_key";
+
+  private final ConnectionSource connectionSource;
+  private final Dao<VerifiedPlayer, Integer> dao;
+  private final Dao<VerifiedPlayerRemoval, Integer> removalDao;
+  private final VerifiedPlayerStatements statements;
+  // Hashes of the string fingerprints of players that have been verified by older versions
+  private final FingerprintSet legacyCache;
+  // Only set if the table used by older versions still exists
+  private volatile @Nullable Dao<LegacyVerifiedPlayer, Integer> legacyDao;
+  // Makes sure the cleanup task and the update service never use the same connection at once
+  private final Object databaseLock = new Object();
+  // Position of the last sync; only used by the update service
+  private int syncId;
+  private int lastRemovalId;
+
+  JdbcVerifiedPlayerStorage(final SonarConfiguration.Database.@NotNull Type type,
+                            final @NotNull LibraryManager libraryManager,
+                            final @NotNull FingerprintSet legacyCache) throws SQLException {
+    this.legacyCache = legacyCache;
+
+    // Make sure to only load the driver once per database type
+    if (!type.isLoaded()) {
+      Sonar.get0().getLogger().info("Loading {} driver version {}",
+        type.getDatabaseType().getDatabaseName(),
+        type.getDatabaseDriver().getVersion());
+      libraryManager.loadLibrary(type.getDatabaseDriver());
+      type.setLoaded(true);
+    }
+
+    final String jdbcURL;
+
+    // H2 has a different JDBC URL layout
+    // https://www.codejava.net/java-se/jdbc/connect-to-h2-database-examples
+    if (type == SonarConfiguration.Database.Type.H2) {
+      final File file = new File(Sonar.get0().getConfig().getPluginFolder(),
+        Sonar.get0().getConfig().getGeneralConfig().getString("database.filename"));
+      jdbcURL = String.format(type.getConnectionString(), file.getAbsolutePath());
+    } else {
+      // Normal JDBC URL layout for MySQL/MariaDB/...
+      jdbcURL = String.format(type.getConnectionString(),
+        Sonar.get0().getConfig().getGeneralConfig().getString("database.host"),
+        Sonar.get0().getConfig().getGeneralConfig().getInt("database.port"),
+        Sonar.get0().getConfig().getGeneralConfig().getString("database.name"),
+        "?autoReconnect=true");
+    }
+
+    final String user = Sonar.get0().getConfig().getGeneralConfig().getString("database.username");
+    final String pass = Sonar.get0().getConfig().getGeneralConfig().getString("database.password");
+    connectionSource = type == SonarConfiguration.Database.Type.H2
+      ? new JdbcConnectionSource(jdbcURL, user, pass, type.getDatabaseType())
+      : new JdbcPooledConnectionSource(jdbcURL, user, pass, type.getDatabaseType());
+
+    dao = DaoManager.createDao(connectionSource, VerifiedPlayer.class);
+    removalDao = DaoManager.createDao(connectionSource, VerifiedPlayerRemoval.class);
+    statements = new VerifiedPlayerStatements(type, dao.getTableName(), removalDao.getTableName(),
+      DatabaseTableConfig.extractTableName(type.getDatabaseType(), LegacyVerifiedPlayer.class));
+  }
+
+  @Override
+  public void open() throws SQLException {
+    // Make sure the table exists before doing anything else
+    createSchema();
+    TableUtils.createTableIfNotExists(connectionSource, VerifiedPlayerRemoval.class);
+    // Players verified by older versions can only be migrated once they join again,
+    // since their old fingerprints can't be converted to the new ones
+    final Dao<LegacyVerifiedPlayer, Integer> legacy = DaoManager.createDao(connectionSource, LegacyVerifiedPlayer.class);
+    if (legacy.isTableExists()) {
+      // Older versions didn't index the table, but legacy players are looked up by their fingerprint
+      // and expired by their timestamp until the table is dropped
+      createIndex(legacy, statements.getCreateLegacyFingerprintIndex());
+      createIndex(legacy, statements.getCreateLegacyTimestampIndex());
+      legacyDao = legacy;
+    }
+  }
+
+  @Override
+  public byte @NotNull [] loadKey(final byte @NotNull [] generated) throws SQLException {
+    TableUtils.createTableIfNotExists(connectionSource, StoredProperty.class);
+    final Dao<StoredProperty, String> propertyDao = DaoManager.createDao(connectionSource, StoredProperty.class);
+    StoredProperty property = propertyDao.queryForId(FINGERPRINT_KEY);
+    if (property == null) {
+      try {
+        propertyDao.create(new StoredProperty(FINGERPRINT_KEY, HexFormat.of().formatHex(generated)));
+        return generated;
+      } catch (SQLException exception) {
+        // Another server sharing the database might have stored its key first
+        property = propertyDao.queryForId(FINGERPRINT_KEY);
+        if (property == null) {
+          throw exception;
+        }
+      }
+    }
+    return HexFormat.of().parseHex(property.getValue());
+  }
+
+  @Override
+  public long count() throws SQLException {
+    return dao.countOf();
+  }
+
+  /**
+   * Loads all fingerprints page by page (ordered by their ID), so the rows never have to be held in memory at once
+   */
+  @Override
+  public int load(final @NotNull LongConsumer consumer) throws SQLException {
+    // Removals that happen while loading are picked up by the first sync
+    lastRemovalId = withConnection(connection -> {
+      try (final PreparedStatement select = connection.prepareStatement(statements.getSelectLastRemoval());
+           final ResultSet resultSet = select.executeQuery()) {
+        return resultSet.next() ? resultSet.getInt(1) : 0;
+      }
+    });
+
+    final int loaded = withConnection(connection -> {
+      try (final PreparedStatement select = connection.prepareStatement(statements.getSelectPage())) {
+        int total = 0;
+        int lastId = 0;
+        int page;
+        do {
+          page = 0;
+          select.setInt(1, lastId);
+          try (final ResultSet resultSet = select.executeQuery()) {
+            while (resultSet.next()) {
+              lastId = resultSet.getInt(1);
+              consumer.accept(resultSet.getLong(2));
+              page++;
+            }
+          }
+          total += page;
+        } while (page == VerifiedPlayerStatements.PAGE_SIZE);
+        // Rows that are inserted after the last page has been read are picked up by the first sync
+        syncId = lastId;
+        return total;
+      }
+    });
+
+    final Dao<LegacyVerifiedPlayer, Integer> legacyDao = this.legacyDao;
+    if (legacyDao != null) {
+      try (final CloseableIterator<LegacyVerifiedPlayer> iterator = legacyDao.queryBuilder()
+        .selectColumns("fingerprint").iterator()) {
+        while (iterator.hasNext()) {
+          legacyCache.add(FingerprintingUtil.hash(iterator.next().getFingerprint()));
+        }
+      }
+      Sonar.get0().getLogger().info("Found {} verified players that will be migrated on their next login.",
+        legacyCache.size());
+    }
+    return loaded;
+  }
+
+  @Override
+  public boolean contains(final long fingerprint) throws SQLException {
+    return withConnection(connection -> {
+      try (final PreparedStatement select = connection.prepareStatement(statements.getSelectFingerprint())) {
+        select.setLong(1, fingerprint);
+        try (final ResultSet resultSet = select.executeQuery()) {
+          return resultSet.next();
+        }
+      }
+    });
+  }
+
+  @Override
+  public @NotNull Map<Long, Long> getTimestamps(final @NotNull Collection<Long> fingerprints) throws SQLException {
+    final List<Long> remaining = new ArrayList<>(fingerprints);
+    final Map<Long, Long> timestamps = new HashMap<>();
+    withConnection(connection -> {
+      for (int start = 0; start < remaining.size(); start += VerifiedPlayerStatements.LOOKUP_BATCH_SIZE) {
+        final List<Long> batch = remaining.subList(start,
+          Math.min(start + VerifiedPlayerStatements.LOOKUP_BATCH_SIZE, remaining.size()));
+        try (final PreparedStatement select = connection.prepareStatement(
+          statements.getSelectTimestamps(batch.size()))) {
+          for (int i = 0; i < batch.size(); i++) {
+            select.setLong(i + 1, batch.get(i));
+          }
+          try (final ResultSet resultSet = select.executeQuery()) {
+            while (resultSet.next()) {
+              timestamps.put(resultSet.getLong(1), resultSet.getTimestamp(2).getTime());
+            }
+          }
+        }
+      }
+      return null;
+    });
+    return timestamps;
+  }
+
+  /**
+   * Reads the players ordered by their ID
+   */
+  @Override
+  public @NotNull VerifiedPlayerPage page(final @Nullable VerifiedPlayerPage previous,
+                                         final int limit) throws SQLException {
+    final int after = previous == null ? 0 : (int) previous.getCursor();
+    return withConnection(connection -> {
+      try (final PreparedStatement select = connection.prepareStatement(statements.getSelectEntries())) {
+        select.setInt(1, after);
+        select.setInt(2, limit);
+        final List<VerifiedPlayer> players = new ArrayList<>(limit);
+        int lastId = after;
+        try (final ResultSet resultSet = select.executeQuery()) {
+          while (resultSet.next()) {
+            lastId = resultSet.getInt(1);
+            players.add(new VerifiedPlayer(resultSet.getLong(2), resultSet.getTimestamp(3).getTime()));
+          }
+        }
+        return new VerifiedPlayerPage(players, lastId, players.size() < limit);
+      }
+    });
+  }
+
+  /**
+   * Writes the changes in a single transaction using batched statements
+   */
+  @Override
+  public void write(final @NotNull List<Map.Entry<Long, Long>> changes) throws SQLException {
+    synchronized (databaseLock) {
+      withConnection(connection -> {
+        final boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (final PreparedStatement delete = connection.prepareStatement(statements.getDelete());
+             final PreparedStatement upsert = connection.prepareStatement(statements.getUpsert());
+             final PreparedStatement insertRemoval = connection.prepareStatement(statements.getInsertRemoval())) {
+          final Timestamp now = new Timestamp(System.currentTimeMillis());
+          for (final Map.Entry<Long, Long> change : changes) {
+            if (change.getValue() == Long.MIN_VALUE) {
+              delete.setLong(1, change.getKey());
+              delete.addBatch();
+              // Let other servers sharing the database know about the removal
+              insertRemoval.setLong(1, change.getKey());
+              insertRemoval.setTimestamp(2, now);
+              insertRemoval.addBatch();
+            } else {
+              upsert.setLong(1, change.getKey());
+              upsert.setTimestamp(2, new Timestamp(change.getValue()));
+              upsert.addBatch();
+            }
+          }
+          delete.executeBatch();
+          insertRemoval.executeBatch();
+          upsert.executeBatch();
+          connection.commit();
+        } catch (SQLException exception) {
+          connection.rollback();
+          throw exception;
+        } finally {
+          connection.setAutoCommit(autoCommit);
+        }
+        return null;
+      });
+    }
+  }
+
+  @Override
+  public int removeExpired(final long timestamp, final @Nullable LongConsumer removed) throws SQLException {
+    final Timestamp expiry = new Timestamp(timestamp);
+    final int total;
+
+    synchronized (databaseLock) {
+      total = withConnection(connection -> {
+        if (removed != null) {
+          try (final PreparedStatement select = connection.prepareStatement(statements.getSelectExpired())) {
+            select.setTimestamp(1, expiry);
+            try (final ResultSet resultSet = select.executeQuery()) {
+              while (resultSet.next()) {
+                removed.accept(resultSet.getLong(1));
+              }
+            }
+          }
+        }
+        // Delete the entries in chunks, so other statements don't have to wait for a single huge delete
+        int deletedTotal = 0;
+        try (final PreparedStatement delete = connection.prepareStatement(statements.getDeleteExpired())) {
+          delete.setTimestamp(1, expiry);
+          int deleted;
+          do {
+            deleted = delete.executeUpdate();
+            deletedTotal += deleted;
+          } while (deleted >= VerifiedPlayerStatements.EXPIRY_CHUNK_SIZE);
+        }
+        try (final PreparedStatement delete = connection.prepareStatement(statements.getDeleteExpiredRemovals())) {
+          delete.setTimestamp(1, expiry);
+          delete.executeUpdate();
+        }
+        return deletedTotal;
+      });
+    }
+
+    final Dao<LegacyVerifiedPlayer, Integer> legacyDao = this.legacyDao;
+    if (legacyDao != null) {
+      if (removed != null) {
+        final List<LegacyVerifiedPlayer> oldLegacyEntries = legacyDao.queryBuilder()
+          .selectColumns("fingerprint")
+          .where().lt("timestamp", expiry)
+          .query();
+        for (final LegacyVerifiedPlayer player : oldLegacyEntries) {
+          legacyCache.remove(FingerprintingUtil.hash(player.getFingerprint()));
+        }
+      }
+      final DeleteBuilder<LegacyVerifiedPlayer, Integer> deleteBuilder = legacyDao.deleteBuilder();
+      deleteBuilder.where().lt("timestamp", expiry);
+      deleteBuilder.delete();
+      // Drop the old table once all of its entries have either been migrated or expired
+      if (legacyDao.countOf() == 0L) {
+        TableUtils.dropTable(legacyDao, true);
+        this.legacyDao = null;
+        legacyCache.clear();
+      }
+    }
+    return total;
+  }
+
+  /**
+   * Reads the players that have been added since the last sync, ordered by their timestamp,
+   * and the players that have been removed since the last sync, ordered by their ID
+   */
+  @Override
+  public int sync(final @NotNull LongConsumer added, final @NotNull LongConsumer removed) throws SQLException {
+    return withConnection(connection -> {
+      int changes = 0;
+      try (final PreparedStatement select = connection.prepareStatement(statements.getSelectChanges())) {
+        select.setInt(1, syncId);
+        try (final ResultSet resultSet = select.executeQuery()) {
+          while (resultSet.next()) {
+            syncId = resultSet.getInt(1);
+            added.accept(resultSet.getLong(2));
+            changes++;
+          }
+        }
+      }
+      try (final PreparedStatement select = connection.prepareStatement(statements.getSelectRemovals())) {
+        select.setInt(1, lastRemovalId);
+        try (final ResultSet resultSet = select.executeQuery()) {
+          while (resultSet.next()) {
+            lastRemovalId = resultSet.getInt(1);
+            removed.accept(resultSet.getLong(2));
+            changes++;
+          }
+        }
+      }
+      return changes;
+    });
+  }
+
+  @Override
+  public void removeLegacy(final @NotNull String legacyFingerprint) throws SQLException {
+    final Dao<LegacyVerifiedPlayer, Integer> legacyDao = this.legacyDao;
+    if (legacyDao != null) {
+      final DeleteBuilder<LegacyVerifiedPlayer, Integer> deleteBuilder = legacyDao.deleteBuilder();
+      deleteBuilder.where().eq("fingerprint", legacyFingerprint);
+      deleteBuilder.delete();
+    }
+  }
+
+  @Override
+  public void clear() throws SQLException {
+    synchronized (databaseLock) {
+      dao.deleteBuilder().delete();
+      removalDao.deleteBuilder().delete();
+      final Dao<LegacyVerifiedPlayer, Integer> legacyDao = this.legacyDao;
+      if (legacyDao != null) {
+        TableUtils.dropTable(legacyDao, true);
+        this.legacyDao = null;
+      }
+    }
+  }
+
+  @Override
+  public void close() throws Exception {
+    connectionSource.close();
+  }
+
+  /**
+   * Creates the table and records its schema version, so future versions know which schema to migrate from
+   */
+  private void createSchema() throws SQLException {
+    if (dao.isTableExists()) {
+      return;
+    }
+    TableUtils.createTableIfNotExists(connectionSource, SchemaVersion.class);
+    final Dao<SchemaVersion, String> schemaDao = DaoManager.createDao(connectionSource, SchemaVersion.class);
+    TableUtils.createTable(connectionSource, VerifiedPlayer.class);
+    schemaDao.createOrUpdate(new SchemaVersion(dao.getTableName(), SCHEMA_VERSION));
+  }
+
+  private static void createIndex(final @NotNull Dao<?, ?> dao, final @NotNull String statement) {
+    try {
+      dao.executeRaw(statement);
+    } catch (SQLException ignored) {
+      // The index already exists (MySQL can't skip existing indexes)
+    }
+  }
+
+  private <T> T withConnection(final @NotNull ConnectionTask<T> task) throws SQLException {
+    final DatabaseConnection databaseConnection = connectionSource.getReadWriteConnection(dao.getTableName());
+    try {
+      // Both connection sources we use are JDBC connection sources
+      return task.run(((JdbcDatabaseConnection) databaseConnection).getInternalConnection());
+    } finally {
+      connectionSource.releaseConnection(databaseConnection);
+    }
+  }
+
+  @FunctionalInterface
+  private interface ConnectionTask<T> {
+    T run(final @NotNull Connection connection) throws SQLException;
+  }
+}
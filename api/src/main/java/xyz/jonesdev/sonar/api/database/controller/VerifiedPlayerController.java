@@ -18,200 +18,498 @@
 package xyz.jonesdev.sonar.api.database.controller;
 
 import com.alessiodp.libby.LibraryManager;
-import com.j256.ormlite.dao.Dao;
-import com.j256.ormlite.dao.DaoManager;
-import com.j256.ormlite.jdbc.JdbcConnectionSource;
-import com.j256.ormlite.jdbc.JdbcPooledConnectionSource;
-import com.j256.ormlite.stmt.QueryBuilder;
-import com.j256.ormlite.support.ConnectionSource;
-import com.j256.ormlite.table.TableUtils;
 import lombok.Getter;
+import lombok.Value;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Range;
 import xyz.jonesdev.sonar.api.Sonar;
 import xyz.jonesdev.sonar.api.config.SonarConfiguration;
 import xyz.jonesdev.sonar.api.database.model.VerifiedPlayer;
+import xyz.jonesdev.sonar.api.fingerprint.FingerprintFilter;
+import xyz.jonesdev.sonar.api.fingerprint.FingerprintHotSet;
+import xyz.jonesdev.sonar.api.fingerprint.FingerprintSet;
 import xyz.jonesdev.sonar.api.fingerprint.FingerprintingUtil;
+import xyz.jonesdev.sonar.api.timer.SystemTimer;
 
 import java.io.File;
-import java.sql.SQLException;
-import java.sql.Timestamp;
+import java.net.InetAddress;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
-import java.util.Collections;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public final class VerifiedPlayerController {
-  @Getter
-  private final Set<String> cache = Collections.synchronizedSet(new HashSet<>());
-  private @Nullable ConnectionSource connectionSource;
-  private Dao<VerifiedPlayer, Integer> dao;
-  private QueryBuilder<VerifiedPlayer, Integer> queryBuilder;
+  private static final Long REMOVED = Long.MIN_VALUE;
+  // Write the pending changes once there are this many of them, or at least once per interval
+  private static final int FLUSH_THRESHOLD = 500;
+  private static final long FLUSH_INTERVAL_MILLIS = 1000L;
+  private static final int BACKLOG_WARNING_THRESHOLD = 10_000;
+  private static final long BACKLOG_WARNING_INTERVAL_MILLIS = 30_000L;
+  // Never look for changes of other servers more often than this
+  private static final long MIN_SYNC_INTERVAL_MILLIS = 1000L;
+  // Lookups that can wait for a lookup thread; players are verified instead of being looked up beyond that
+  private static final int LOOKUP_QUEUE_CAPACITY = 256;
+  // Maximum number of players returned by a single page
+  private static final int MAX_PAGE_SIZE = 10_000;
+  // Log the number of loaded players every time this many players have been loaded
+  private static final int PROGRESS_INTERVAL = 100_000;
+
+  // All verified players, unless the verified players kept in memory are limited or expire
+  private final FingerprintSet cache = new FingerprintSet();
+  // Only used if the verified players kept in memory are limited or expire; the filter tells
+  // which players might be in the database and the hot set holds the recently seen ones
+  private final @Nullable FingerprintHotSet hotSet;
+  private volatile @Nullable FingerprintFilter filter;
+  // Approximate number of verified players in the database if the cache is limited or expires
+  private final AtomicInteger storedPlayers = new AtomicInteger();
+  // Hashes of the string fingerprints of players that have been verified by older versions
+  private final FingerprintSet legacyCache = new FingerprintSet();
+  private @Nullable VerifiedPlayerStorage storage;
   @Getter
   private final @NotNull SonarConfiguration.Database.Type cachedDatabaseType;
-  private final ExecutorService updateService = Executors.newSingleThreadExecutor();
+  private final ScheduledExecutorService updateService =
+    Executors.newSingleThreadScheduledExecutor(createThreadFactory("sonar-db-update-thread"));
+  // Looks up players that join while the cache is still being filled
+  private final ExecutorService lookupService = new ThreadPoolExecutor(2, 2, 0L, TimeUnit.MILLISECONDS,
+    new ArrayBlockingQueue<>(LOOKUP_QUEUE_CAPACITY), createThreadFactory("sonar-db-lookup-thread"));
+  // Changes that haven't been written to the database yet, mapped from the fingerprint to the
+  // timestamp of the verification (or REMOVED), so repeated changes of the same player are coalesced
+  private final Map<Long, Long> pendingChanges = new ConcurrentHashMap<>();
+  private final AtomicBoolean flushScheduled = new AtomicBoolean();
+  private long lastBacklogWarning;
+  private @Nullable ScheduledFuture<?> syncTask;
+  // Settings that can't be changed without reconnecting to the database
+  private final @NotNull ConnectionSettings connectionSettings;
   @Getter
-  private int maximumAge;
+  private volatile int maximumAge;
+  /**
+   * Whether all verified players have been loaded from the database into memory
+   */
+  @Getter
+  private volatile boolean ready;
+  // Completed once the key used to calculate fingerprints has been loaded from the database
+  private final CompletableFuture<Void> keyLoaded = new CompletableFuture<>();
 
   public VerifiedPlayerController(final @NotNull LibraryManager libraryManager) {
-    final SonarConfiguration.Database database = Sonar.get0().getConfig().getDatabase();
+    final SonarConfiguration config = Sonar.get0().getConfig();
+    final SonarConfiguration.Database database = config.getDatabase();
     cachedDatabaseType = database.getType();
+    connectionSettings = ConnectionSettings.of(config);
+    if (!usesHotSet(config)) {
+      hotSet = null;
+    } else {
+      // Without a database, players that are forgotten have to verify again
+      hotSet = new FingerprintHotSet(getHotSetCapacity(config), config.getVerification().getRememberTime(),
+        cachedDatabaseType == SonarConfiguration.Database.Type.NONE ? null : this::refresh);
+    }
 
     if (cachedDatabaseType == SonarConfiguration.Database.Type.NONE) {
       Sonar.get0().getLogger().warn("Configure a database to save verified players.");
+      // Without a database, the random key is only used as long as the server is running
+      keyLoaded.complete(null);
+      ready = true;
       return;
     }
 
-    // Make sure to only load the driver once per database type
-    if (!cachedDatabaseType.isLoaded()) {
-      Sonar.get0().getLogger().info("Loading {} driver version {}",
-        cachedDatabaseType.getDatabaseType().getDatabaseName(),
-        cachedDatabaseType.getDatabaseDriver().getVersion());
-      libraryManager.loadLibrary(cachedDatabaseType.getDatabaseDriver());
-      cachedDatabaseType.setLoaded(true);
-    }
-
     try {
-      final String jdbcURL;
-
-      // H2 has a different JDBC URL layout
-      // https://www.codejava.net/java-se/jdbc/connect-to-h2-database-examples
-      if (cachedDatabaseType == SonarConfiguration.Database.Type.H2) {
-        final File file = new File(Sonar.get0().getConfig().getPluginFolder(),
-          Sonar.get0().getConfig().getGeneralConfig().getString("database.filename"));
-        jdbcURL = String.format(cachedDatabaseType.getConnectionString(), file.getAbsolutePath());
+      if (cachedDatabaseType == SonarConfiguration.Database.Type.FILE) {
+        storage = new FileVerifiedPlayerStorage(new File(Sonar.get0().getConfig().getPluginFolder(),
+          Sonar.get0().getConfig().getGeneralConfig().getString("database.filename")));
       } else {
-        // Normal JDBC URL layout for MySQL/MariaDB/...
-        jdbcURL = String.format(cachedDatabaseType.getConnectionString(),
-          Sonar.get0().getConfig().getGeneralConfig().getString("database.host"),
-          Sonar.get0().getConfig().getGeneralConfig().getInt("database.port"),
-          Sonar.get0().getConfig().getGeneralConfig().getString("database.name"),
-          "?autoReconnect=true");
+        storage = new JdbcVerifiedPlayerStorage(cachedDatabaseType, libraryManager, legacyCache);
       }
-
-      final String user = Sonar.get0().getConfig().getGeneralConfig().getString("database.username");
-      final String pass = Sonar.get0().getConfig().getGeneralConfig().getString("database.password");
-      connectionSource = cachedDatabaseType == SonarConfiguration.Database.Type.H2
-        ? new JdbcConnectionSource(jdbcURL, user, pass, cachedDatabaseType.getDatabaseType())
-        : new JdbcPooledConnectionSource(jdbcURL, user, pass, cachedDatabaseType.getDatabaseType());
-
-      try {
-        TableUtils.createTableIfNotExists(connectionSource, VerifiedPlayer.class);
-      } catch (SQLException ignored) {
-        /*
-         * This is caused by a duplicate index;
-         * I know this isn't the best method of handling it,
-         * but I don't know how else I could address this issue.
-         */
-      }
-
-      dao = DaoManager.createDao(connectionSource, VerifiedPlayer.class);
-      queryBuilder = dao.queryBuilder();
       maximumAge = database.getMaximumAge();
 
       // Make sure to run the clean task and the caching task in the same thread
       // https://github.com/jonesdevelopment/sonar/issues/150
       updateService.execute(() -> {
-        if (connectionSource != null) {
+        final VerifiedPlayerStorage storage = this.storage;
+        if (storage != null) {
           try {
+            // Make sure the storage exists and is up-to-date before doing anything else
+            storage.open();
+            // All servers sharing the storage have to calculate the same fingerprints
+            FingerprintingUtil.setKey(storage.loadKey(FingerprintingUtil.generateKey()));
+            keyLoaded.complete(null);
             // Make sure to clear all outdated entries first
             clearOld(maximumAge, false);
             // Add all entries from the database to the cache
-            dao.queryForAll().forEach(verifiedPlayer -> cache.add(verifiedPlayer.getFingerprint()));
-          } catch (SQLException exception) {
+            loadVerifiedPlayers(storage);
+          } catch (Exception exception) {
             exception.printStackTrace(System.err);
+          } finally {
+            // Don't keep looking up players if loading them failed
+            keyLoaded.complete(null);
+            ready = true;
           }
         }
       });
-    } catch (SQLException exception) {
+      updateService.scheduleWithFixedDelay(this::flush,
+        FLUSH_INTERVAL_MILLIS, FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+      scheduleSync(database.getSyncInterval());
+    } catch (Exception exception) {
       exception.printStackTrace(System.err);
+      keyLoaded.complete(null);
+    }
+  }
+
+  /**
+   * Applies the current configuration without reconnecting to the database or reloading the
+   * verified players, unless settings that require doing so have changed
+   *
+   * @return false if a new controller has to be created instead
+   */
+  public boolean reload() {
+    final SonarConfiguration config = Sonar.get0().getConfig();
+    if (!connectionSettings.equals(ConnectionSettings.of(config))
+      // Switching between keeping all players in memory and only some of them requires loading them again
+      || usesHotSet(config) != (hotSet != null)) {
+      return false;
+    }
+
+    if (hotSet != null) {
+      hotSet.resize(getHotSetCapacity(config), config.getVerification().getRememberTime());
     }
+    if (storage != null) {
+      maximumAge = config.getDatabase().getMaximumAge();
+      scheduleSync(config.getDatabase().getSyncInterval());
+    }
+    return true;
   }
 
   /**
    * Closes the connection if instantiated
    */
   public void close() {
-    // The connection source will always be null if the database type is NONE.
-    if (connectionSource != null) {
-      // Shut down the update service before letting it re-use the connection.
+    // The storage will always be null if the database type is NONE.
+    if (storage != null) {
+      // Write all pending changes and shut down the update service before closing the storage.
+      updateService.execute(this::flush);
       updateService.shutdown();
+      lookupService.shutdown();
       try {
-        connectionSource.close();
+        if (!updateService.awaitTermination(10L, TimeUnit.SECONDS)) {
+          Sonar.get0().getLogger().warn("Could not save {} changes to verified players in time.",
+            pendingChanges.size());
+        }
+        storage.close();
       } catch (Exception exception) {
         exception.printStackTrace(System.err);
       }
-      // Make sure not to reuse a closed connection
-      connectionSource = null;
+      // Make sure not to reuse a closed storage
+      storage = null;
     }
+    // Don't keep players waiting for a key that will never be loaded
+    keyLoaded.complete(null);
   }
 
   /**
    * Clear all old entries using the given timestamp
    */
   public void clearOld(final @Range(from = 1, to = 365) int maximumAge,
-                       final boolean removeExisting) throws SQLException {
-    final long timestamp = Instant.now().minus(maximumAge, ChronoUnit.DAYS).getEpochSecond() * 1000L;
-
-    final List<VerifiedPlayer> oldEntries = queryBuilder.where()
-      .lt("timestamp", new Timestamp(timestamp))
-      .query();
-
-    if (oldEntries != null && !oldEntries.isEmpty()) {
-      for (final VerifiedPlayer player : oldEntries) {
-        dao.delete(player);
-        if (removeExisting) {
-          cache.remove(player.getFingerprint());
+                       final boolean removeExisting) throws Exception {
+    final VerifiedPlayerStorage storage = this.storage;
+    if (storage == null) {
+      return;
+    }
+    final long timestamp = Instant.now().minus(maximumAge, ChronoUnit.DAYS).toEpochMilli();
+
+    final int removed = storage.removeExpired(timestamp, !removeExisting ? null : fingerprint -> {
+      // Don't forget players that have been verified again, but haven't been saved yet
+      if (!pendingChanges.containsKey(fingerprint)) {
+        cache.remove(fingerprint);
+        if (hotSet != null) {
+          hotSet.remove(fingerprint);
+        }
+      }
+    });
+
+    if (removed > 0) {
+      storedPlayers.updateAndGet(count -> Math.max(count - removed, 0));
+      Sonar.get0().getLogger().info("Removed {} database entries older than {} days.", removed, maximumAge);
+    }
+  }
+
+  /**
+   * Checks if the player has already been verified.
+   * Players verified by older versions are migrated to their new fingerprint here.
+   *
+   * @param fingerprint Fingerprint of the player
+   * @see FingerprintingUtil#getFingerprint(String, InetAddress)
+   */
+  @SuppressWarnings("deprecation")
+  public boolean isVerified(final long fingerprint,
+                            final @NotNull String username,
+                            final @NotNull InetAddress inetAddress) {
+    if (isCached(fingerprint)) {
+      return true;
+    }
+    // Don't calculate the legacy fingerprint if there is nothing left to migrate
+    if (legacyCache.isEmpty()) {
+      return false;
+    }
+    final String legacyFingerprint = FingerprintingUtil.getLegacyFingerprint(username, inetAddress.getHostAddress());
+    if (!legacyCache.remove(FingerprintingUtil.hash(legacyFingerprint))) {
+      return false;
+    }
+    add(new VerifiedPlayer(fingerprint, System.currentTimeMillis()));
+
+    updateService.execute(() -> {
+      final VerifiedPlayerStorage storage = this.storage;
+      if (storage != null) {
+        try {
+          storage.removeLegacy(legacyFingerprint);
+        } catch (Exception exception) {
+          exception.printStackTrace(System.err);
+        }
+      }
+    });
+    return true;
+  }
+
+  /**
+   * Checks if the fingerprint has to be looked up in the database, because it isn't in memory.
+   * This is only the case while the verified players are being loaded or if the number
+   * of verified players kept in memory is limited or if they expire.
+   */
+  public boolean needsLookup(final long fingerprint) {
+    if (!ready) {
+      return true;
+    }
+    final FingerprintFilter filter = this.filter;
+    return filter != null && filter.mightContain(fingerprint);
+  }
+
+  /**
+   * Looks up the fingerprint in the database without blocking the caller.
+   * This is only necessary if {@link #needsLookup(long)} returns true.
+   *
+   * @return a future that completes with true if the fingerprint is in the database, or exceptionally
+   * if too many lookups are already pending or the database could not be queried
+   */
+  public @NotNull CompletableFuture<Boolean> lookup(final long fingerprint) {
+    if (isCached(fingerprint)) {
+      return CompletableFuture.completedFuture(true);
+    }
+    final VerifiedPlayerStorage storage = this.storage;
+    if (storage == null || !needsLookup(fingerprint)) {
+      return CompletableFuture.completedFuture(false);
+    }
+    try {
+      return CompletableFuture.supplyAsync(() -> lookupNow(storage, fingerprint), lookupService);
+    } catch (RejectedExecutionException exception) {
+      // The controller has already been closed or too many lookups are pending
+      return CompletableFuture.failedFuture(exception);
+    }
+  }
+
+  /**
+   * Checks if the player with the given username and IP address has been verified without blocking the caller.
+   * Unlike {@link #lookup(long)}, this waits for the key used to calculate fingerprints to be loaded first.
+   *
+   * @see #lookup(long)
+   */
+  public @NotNull CompletableFuture<Boolean> lookup(final @NotNull String username,
+                                                    final @NotNull InetAddress inetAddress) {
+    return keyLoaded.thenCompose(ignored -> lookup(FingerprintingUtil.getFingerprint(username, inetAddress)));
+  }
+
+  /**
+   * Checks which of the given fingerprints have been verified.
+   * Fingerprints that aren't in memory are looked up in the database using as few queries as possible.
+   *
+   * @return a future that completes with the verified fingerprints
+   */
+  public @NotNull CompletableFuture<Set<Long>> lookupAll(final @NotNull Collection<Long> fingerprints) {
+    final Set<Long> verified = new HashSet<>();
+    final List<Long> unknown = new ArrayList<>();
+    for (final long fingerprint : fingerprints) {
+      if (isCached(fingerprint)) {
+        verified.add(fingerprint);
+      } else if (needsLookup(fingerprint)) {
+        unknown.add(fingerprint);
+      }
+    }
+    final VerifiedPlayerStorage storage = this.storage;
+    if (storage == null || unknown.isEmpty()) {
+      return CompletableFuture.completedFuture(verified);
+    }
+    return supplyAsync(() -> {
+      for (final long fingerprint : storage.getTimestamps(unknown).keySet()) {
+        // The player might have been removed, but not saved yet
+        if (!REMOVED.equals(pendingChanges.get(fingerprint))) {
+          verified.add(fingerprint);
         }
       }
-      Sonar.get0().getLogger().info("Removed {} database entries older than {} days.",
-        oldEntries.size(), maximumAge);
+      return verified;
+    });
+  }
+
+  /**
+   * Looks up when the given fingerprints have been verified (or last seen, if verified players expire).
+   * Timestamps are only known if a database is configured.
+   *
+   * @return a future that completes with the timestamps of the verified fingerprints
+   */
+  public @NotNull CompletableFuture<Map<Long, Long>> getTimestamps(final @NotNull Collection<Long> fingerprints) {
+    final Map<Long, Long> timestamps = new HashMap<>();
+    final List<Long> stored = new ArrayList<>();
+    for (final long fingerprint : fingerprints) {
+      // Changes that haven't been saved yet are more recent than what's in the database
+      final Long pending = pendingChanges.get(fingerprint);
+      if (pending == null) {
+        stored.add(fingerprint);
+      } else if (!REMOVED.equals(pending)) {
+        timestamps.put(fingerprint, pending);
+      }
+    }
+    final VerifiedPlayerStorage storage = this.storage;
+    if (storage == null || stored.isEmpty()) {
+      return CompletableFuture.completedFuture(timestamps);
+    }
+    return supplyAsync(() -> {
+      timestamps.putAll(storage.getTimestamps(stored));
+      return timestamps;
+    });
+  }
+
+  /**
+   * Reads the verified players saved in the database page by page.
+   * Players that haven't been saved yet are only included once they have been saved.
+   *
+   * @param previous Previous page, or null to read the first page
+   * @param limit Maximum number of players on the page
+   */
+  public @NotNull CompletableFuture<VerifiedPlayerPage> getPage(final @Nullable VerifiedPlayerPage previous,
+                                                                final int limit) {
+    final VerifiedPlayerStorage storage = this.storage;
+    if (storage == null) {
+      return CompletableFuture.completedFuture(new VerifiedPlayerPage(List.of(), 0L, true));
+    }
+    final int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    return supplyAsync(() -> storage.page(previous, pageSize));
+  }
+
+  /**
+   * @return a future that completes with the (approximate) number of verified players in the database,
+   * or the number of verified players in memory if there is no database
+   * @see #size()
+   */
+  public @NotNull CompletableFuture<Long> count() {
+    final VerifiedPlayerStorage storage = this.storage;
+    if (storage == null) {
+      return CompletableFuture.completedFuture((long) size());
+    }
+    return supplyAsync(storage::count);
+  }
+
+  /**
+   * Adds all players at once
+   *
+   * @return a future that completes once the players have been saved
+   */
+  public @NotNull CompletableFuture<Void> addAll(final @NotNull Collection<VerifiedPlayer> players) {
+    for (final VerifiedPlayer player : players) {
+      add(player);
+    }
+    return flushAsync();
+  }
+
+  /**
+   * Removes all players at once
+   *
+   * @return a future that completes once the players have been removed from the database
+   */
+  public @NotNull CompletableFuture<Void> removeAll(final @NotNull Collection<Long> fingerprints) {
+    for (final long fingerprint : fingerprints) {
+      remove(fingerprint);
+    }
+    return flushAsync();
+  }
+
+  private @NotNull CompletableFuture<Void> flushAsync() {
+    if (storage == null) {
+      return CompletableFuture.completedFuture(null);
+    }
+    final CompletableFuture<Void> future = new CompletableFuture<>();
+    try {
+      updateService.execute(() -> {
+        if (flush()) {
+          future.complete(null);
+        } else {
+          future.completeExceptionally(new IllegalStateException("Could not save the changes; retrying later"));
+        }
+      });
+    } catch (RejectedExecutionException exception) {
+      future.completeExceptionally(exception);
+    }
+    return future;
+  }
+
+  private <T> @NotNull CompletableFuture<T> supplyAsync(final @NotNull Callable<T> task) {
+    final CompletableFuture<T> future = new CompletableFuture<>();
+    try {
+      lookupService.execute(() -> {
+        try {
+          future.complete(task.call());
+        } catch (Exception exception) {
+          future.completeExceptionally(exception);
+        }
+      });
+    } catch (RejectedExecutionException exception) {
+      // The controller has already been closed or too many lookups are pending
+      future.completeExceptionally(exception);
+    }
+    return future;
+  }
+
+  private boolean lookupNow(final @NotNull VerifiedPlayerStorage storage, final long fingerprint) {
+    try {
+      final boolean found = storage.contains(fingerprint);
+      if (found) {
+        if (hotSet != null) {
+          hotSet.add(fingerprint);
+          refresh(fingerprint);
+        } else {
+          cache.add(fingerprint);
+        }
+      }
+      return found;
+    } catch (Exception exception) {
+      Sonar.get0().getLogger().error("Could not look up verified player: {}", exception);
+      throw new CompletionException(exception);
     }
   }
 
   /**
    * First, remove the player from the local cache and then,
-   * secondly, asynchronously add the player to the database.
+   * secondly, asynchronously remove the player from the database.
    *
    * @param fingerprint Fingerprint of the verified player
    */
-  public void remove(final @NotNull String fingerprint) {
+  public void remove(final long fingerprint) {
     cache.remove(fingerprint);
+    if (hotSet != null) {
+      hotSet.remove(fingerprint);
+      storedPlayers.updateAndGet(count -> Math.max(count - 1, 0));
+    }
 
     // Don't try to update the column if the database type is NONE
     if (cachedDatabaseType == SonarConfiguration.Database.Type.NONE) {
       return;
     }
 
-    updateService.execute(() -> {
-      if (connectionSource != null) {
-        try {
-          final List<VerifiedPlayer> verifiedPlayer = queryBuilder.where()
-            .eq("fingerprint", fingerprint)
-            .query();
-
-          if (verifiedPlayer != null) {
-            for (final VerifiedPlayer player : verifiedPlayer) {
-              dao.delete(player);
-            }
-          }
-        } catch (SQLException exception) {
-          exception.printStackTrace(System.err);
-        }
-      }
-    });
+    queueChange(fingerprint, REMOVED);
   }
 
   /**
-   * Creates a new VerifiedPlayer model from the given username, host address, and timestamp
+   * Creates a new VerifiedPlayer model from the given username, IP address, and timestamp
    */
-  public void add(final @NotNull String username, final @NotNull String hostAddress, final long timestamp) {
-    final String fingerprint = FingerprintingUtil.getFingerprint(username, hostAddress);
+  public void add(final @NotNull String username, final @NotNull InetAddress inetAddress, final long timestamp) {
+    final long fingerprint = FingerprintingUtil.getFingerprint(username, inetAddress);
     // Add a new VerifiedPlayer object from the given parameters to the database
     add(new VerifiedPlayer(fingerprint, timestamp));
   }
@@ -220,39 +518,266 @@ public void add(final @NotNull String username, final @NotNull String hostAddres
    * Caches the player locally and then adds the player to the database
    */
   public void add(final @NotNull VerifiedPlayer player) {
-    cache.add(player.getFingerprint());
+    if (hotSet != null) {
+      hotSet.add(player.getFingerprint());
+      final FingerprintFilter filter = this.filter;
+      // The filter doesn't exist before the verified players are loaded; see #loadVerifiedPlayers
+      if (filter != null && filter.put(player.getFingerprint())) {
+        storedPlayers.incrementAndGet();
+      }
+    } else {
+      cache.add(player.getFingerprint());
+    }
 
     // Don't try to update the column if the database type is NONE
     if (cachedDatabaseType == SonarConfiguration.Database.Type.NONE) {
       return;
     }
 
-    updateService.execute(() -> {
-      if (connectionSource != null) {
-        try {
-          dao.createIfNotExists(player);
-        } catch (SQLException exception) {
-          exception.printStackTrace(System.err);
-        }
-      }
-    });
+    queueChange(player.getFingerprint(), player.getTimestamp().getTime());
   }
 
   /**
    * Clear the local cache, and, if the database type is set,
-   * remove the table from the database.
+   * remove all entries from the database.
    */
   public void clearAll() {
     cache.clear();
+    legacyCache.clear();
+    if (hotSet != null) {
+      hotSet.clear();
+      filter = new FingerprintFilter(1L << 20);
+      storedPlayers.set(0);
+    }
+    pendingChanges.clear();
 
-    // Delete the entire table from the database, if necessary
-    if (connectionSource != null
-      && cachedDatabaseType != SonarConfiguration.Database.Type.NONE) {
+    // Delete all entries from the database, if necessary
+    final VerifiedPlayerStorage storage = this.storage;
+    if (storage != null) {
       try {
-        dao.deleteBuilder().delete();
-      } catch (SQLException exception) {
+        storage.clear();
+      } catch (Exception exception) {
         exception.printStackTrace(System.err);
       }
     }
   }
+
+  /**
+   * @return the number of changes that haven't been written to the database yet
+   */
+  public int getPendingChanges() {
+    return pendingChanges.size();
+  }
+
+  /**
+   * @return the (approximate, if the cache is limited or expires) number of verified players
+   */
+  public int size() {
+    if (hotSet == null) {
+      return cache.size();
+    }
+    return cachedDatabaseType == SonarConfiguration.Database.Type.NONE ? hotSet.size() : storedPlayers.get();
+  }
+
+  private boolean isCached(final long fingerprint) {
+    return hotSet != null ? hotSet.contains(fingerprint) : cache.contains(fingerprint);
+  }
+
+  /**
+   * Updates the timestamp of a player that joined again after not being seen for a while,
+   * so players are only removed from the database once they haven't joined for the maximum age
+   */
+  private void refresh(final long fingerprint) {
+    // Don't overwrite changes that haven't been written yet
+    if (pendingChanges.putIfAbsent(fingerprint, System.currentTimeMillis()) == null) {
+      scheduleFlushIfNeeded();
+    }
+  }
+
+  private void queueChange(final long fingerprint, final long timestamp) {
+    pendingChanges.put(fingerprint, timestamp);
+    scheduleFlushIfNeeded();
+  }
+
+  private void scheduleFlushIfNeeded() {
+    // Don't wait for the next interval if a lot of players are being verified at once
+    if (pendingChanges.size() >= FLUSH_THRESHOLD && flushScheduled.compareAndSet(false, true)) {
+      updateService.execute(this::flush);
+    }
+  }
+
+  /**
+   * Writes all pending changes to the database at once.
+   * Changes that couldn't be written stay pending and are retried during the next flush.
+   *
+   * @return false if the changes couldn't be written
+   */
+  private boolean flush() {
+    flushScheduled.set(false);
+    final VerifiedPlayerStorage storage = this.storage;
+    if (pendingChanges.isEmpty() || storage == null) {
+      return true;
+    }
+
+    final List<Map.Entry<Long, Long>> changes = new ArrayList<>(pendingChanges.size());
+    for (final Map.Entry<Long, Long> entry : pendingChanges.entrySet()) {
+      changes.add(Map.entry(entry.getKey(), entry.getValue()));
+    }
+
+    boolean saved = false;
+    try {
+      storage.write(changes);
+      // Only forget about the changes that haven't been overwritten in the meantime
+      for (final Map.Entry<Long, Long> change : changes) {
+        pendingChanges.remove(change.getKey(), change.getValue());
+      }
+      saved = true;
+    } catch (Exception exception) {
+      Sonar.get0().getLogger().error("Could not save {} changes to verified players: {}",
+        changes.size(), exception);
+    }
+
+    final int backlog = pendingChanges.size();
+    final long now = System.currentTimeMillis();
+    if (backlog >= BACKLOG_WARNING_THRESHOLD && now - lastBacklogWarning >= BACKLOG_WARNING_INTERVAL_MILLIS) {
+      lastBacklogWarning = now;
+      Sonar.get0().getLogger().warn("The database is falling behind; {} changes to verified players are pending.",
+        backlog);
+    }
+    return saved;
+  }
+
+  private synchronized void scheduleSync(final int interval) {
+    if (syncTask != null) {
+      syncTask.cancel(false);
+      syncTask = null;
+    }
+    if (interval > 0) {
+      final long syncInterval = Math.max(interval, MIN_SYNC_INTERVAL_MILLIS);
+      syncTask = updateService.scheduleWithFixedDelay(this::sync, syncInterval, syncInterval, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * Applies the changes made by other servers sharing the same database
+   */
+  private void sync() {
+    final VerifiedPlayerStorage storage = this.storage;
+    if (storage == null || !ready) {
+      return;
+    }
+
+    try {
+      storage.sync(fingerprint -> {
+        if (hotSet == null) {
+          cache.add(fingerprint);
+          return;
+        }
+        // Only remember that the player is in the database, since the player hasn't joined this server yet
+        final FingerprintFilter filter = this.filter;
+        if (filter != null && filter.put(fingerprint)) {
+          storedPlayers.incrementAndGet();
+        }
+      }, fingerprint -> {
+        // Don't forget players that have been verified again, but haven't been saved yet
+        if (!pendingChanges.containsKey(fingerprint)) {
+          cache.remove(fingerprint);
+          if (hotSet != null) {
+            hotSet.remove(fingerprint);
+          }
+        }
+      });
+    } catch (Exception exception) {
+      Sonar.get0().getLogger().error("Could not sync verified players: {}", exception);
+    }
+  }
+
+  /**
+   * Loads all fingerprints from the storage without holding all of them in memory at once.
+   * If the verified players kept in memory are limited or expire, the fingerprints are only added to the filter.
+   */
+  private void loadVerifiedPlayers(final @NotNull VerifiedPlayerStorage storage) throws Exception {
+    final SystemTimer timer = new SystemTimer();
+    final FingerprintFilter filter;
+    if (hotSet != null) {
+      // Leave enough room for new players, so the false positive rate doesn't go up too quickly
+      filter = new FingerprintFilter(Math.max(storage.count() * 2L, 1L << 20));
+      this.filter = filter;
+    } else {
+      filter = null;
+    }
+    final AtomicInteger progress = new AtomicInteger();
+    final int loaded = storage.load(fingerprint -> {
+      if (filter != null) {
+        filter.put(fingerprint);
+      } else {
+        cache.add(fingerprint);
+      }
+      if (progress.incrementAndGet() % PROGRESS_INTERVAL == 0) {
+        Sonar.get0().getLogger().info("Loaded {} verified players so far...", progress.get());
+      }
+    });
+    if (filter != null) {
+      // Players verified before the filter existed might not have been saved yet
+      for (final Map.Entry<Long, Long> change : pendingChanges.entrySet()) {
+        if (!REMOVED.equals(change.getValue())) {
+          filter.put(change.getKey());
+        }
+      }
+      storedPlayers.set(loaded);
+    }
+    Sonar.get0().getLogger().info("Loaded {} verified players in {}s.", loaded, timer);
+  }
+
+  private static boolean usesHotSet(final @NotNull SonarConfiguration config) {
+    return config.getVerification().getRememberTime() > 0 || getHotSetCapacity(config) > 0;
+  }
+
+  private static int getHotSetCapacity(final @NotNull SonarConfiguration config) {
+    // Without a database, the number of players kept in memory can't be limited
+    return config.getDatabase().getType() == SonarConfiguration.Database.Type.NONE
+      ? 0 : config.getDatabase().getCacheSize();
+  }
+
+  private static @NotNull ThreadFactory createThreadFactory(final @NotNull String threadName) {
+    return runnable -> {
+      final Thread thread = Executors.defaultThreadFactory().newThread(runnable);
+      thread.setName(threadName);
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
+  @Value
+  private static class ConnectionSettings {
+    SonarConfiguration.Database.Type type;
+    @Nullable String filename;
+    @Nullable String host;
+    int port;
+    @Nullable String name;
+    @Nullable String username;
+    @Nullable String password;
+
+    static @NotNull ConnectionSettings of(final @NotNull SonarConfiguration config) {
+      final SonarConfiguration.Database.Type type = config.getDatabase().getType();
+      switch (type) {
+        case NONE: {
+          return new ConnectionSettings(type, null, null, 0, null, null, null);
+        }
+        case H2:
+        case FILE: {
+          return new ConnectionSettings(type, config.getGeneralConfig().getString("database.filename"),
+            null, 0, null, null, null);
+        }
+        default: {
+          return new ConnectionSettings(type, null,
+            config.getGeneralConfig().getString("database.host"),
+            config.getGeneralConfig().getInt("database.port"),
+            config.getGeneralConfig().getString("database.name"),
+            config.getGeneralConfig().getString("database.username"),
+            config.getGeneralConfig().getString("database.password"));
+        }
+      }
+    }
+  }
 }
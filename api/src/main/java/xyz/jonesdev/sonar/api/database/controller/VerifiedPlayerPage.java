@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) 2026 Sonar Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xyz.jonesdev.sonar.api.database.controller;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.NotNull;
+import xyz.jonesdev.sonar.api.database.model.VerifiedPlayer;
+
+import java.util.List;
+
+/**
+ * Page of verified players and their timestamps
+ *
+ * @see VerifiedPlayerController#getPage(VerifiedPlayerPage, int)
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+public final class VerifiedPlayerPage {
+  private final @NotNull List<VerifiedPlayer> players;
+  // Position of the last player on this page; only the storage that created the page knows what it means
+  @Getter(AccessLevel.PACKAGE)
+  private final long cursor;
+  /**
+   * Whether there are no more players after this page
+   */
+  private final boolean last;
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2026 Sonar Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xyz.jonesdev.sonar.api.database.controller;
+
+import com.j256.ormlite.db.DatabaseType;
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+import xyz.jonesdev.sonar.api.config.SonarConfiguration;
+
+/**
+ * SQL statements for the verified players table that ORMLite can't express,
+ * written in the dialect of the configured database
+ */
+@Getter
+final class VerifiedPlayerStatements {
+  // Upper bound of rows deleted by a single statement, so expiring old entries never locks the table for long
+  static final int EXPIRY_CHUNK_SIZE = 10_000;
+  // Number of rows loaded at once while filling the cache
+  static final int PAGE_SIZE = 10_000;
+  // Upper bound of rows read by a single sync, so a sync never takes long even if a lot has changed
+  static final int SYNC_LIMIT = 10_000;
+  // Maximum number of fingerprints looked up by a single statement
+  static final int LOOKUP_BATCH_SIZE = 1000;
+
+  private final String upsert;
+  private final String delete;
+  private final String selectExpired;
+  private final String selectFingerprint;
+  private final String selectPage;
+  private final String deleteExpired;
+  private final String createLegacyFingerprintIndex;
+  private final String createLegacyTimestampIndex;
+  private final String selectChanges;
+  private final String insertRemoval;
+  private final String selectRemovals;
+  private final String selectLastRemoval;
+  private final String deleteExpiredRemovals;
+  private final String selectEntries;
+  @Getter(AccessLevel.NONE)
+  private final String selectTimestamps;
+
+  VerifiedPlayerStatements(final SonarConfiguration.Database.@NotNull Type type,
+                           final @NotNull String tableName,
+                           final @NotNull String removalsTableName,
+                           final @NotNull String legacyTableName) {
+    final DatabaseType databaseType = type.getDatabaseType();
+    final String table = escape(databaseType, tableName);
+    final String removalsTable = escape(databaseType, removalsTableName);
+    final String legacyTable = escape(databaseType, legacyTableName);
+    final String id = escape(databaseType, "id");
+    final String fingerprint = escape(databaseType, "fingerprint");
+    final String timestamp = escape(databaseType, "timestamp");
+    final String legacyFingerprintIndex = legacyTableName + "_fingerprint_idx";
+    final String legacyTimestampIndex = legacyTableName + "_timestamp_idx";
+
+    switch (type) {
+      case MYSQL:
+      case MARIADB: {
+        upsert = "INSERT INTO " + table + " (" + fingerprint + ", " + timestamp + ") VALUES (?, ?)"
+          + " ON DUPLICATE KEY UPDATE " + timestamp + " = VALUES(" + timestamp + ")";
+        deleteExpired = "DELETE FROM " + table + " WHERE " + timestamp + " < ? LIMIT " + EXPIRY_CHUNK_SIZE;
+        selectPage = "SELECT " + id + ", " + fingerprint + " FROM " + table + " WHERE " + id + " > ?"
+          + " ORDER BY " + id + " LIMIT " + PAGE_SIZE;
+        // MySQL doesn't support IF NOT EXISTS for indexes
+        createLegacyFingerprintIndex = "CREATE INDEX " + legacyFingerprintIndex + " ON " + legacyTable
+          + " (" + fingerprint + ")";
+        createLegacyTimestampIndex = "CREATE INDEX " + legacyTimestampIndex + " ON " + legacyTable
+          + " (" + timestamp + ")";
+        break;
+      }
+      case POSTGRESQL: {
+        upsert = "INSERT INTO " + table + " (" + fingerprint + ", " + timestamp + ") VALUES (?, ?)"
+          + " ON CONFLICT (" + fingerprint + ") DO UPDATE SET " + timestamp + " = EXCLUDED." + timestamp;
+        deleteExpired = deleteExpiredChunk(table, id, timestamp);
+        selectPage = selectPage(table, id, fingerprint);
+        createLegacyFingerprintIndex = createIndexIfNotExists(legacyFingerprintIndex, legacyTable, fingerprint);
+        createLegacyTimestampIndex = createIndexIfNotExists(legacyTimestampIndex, legacyTable, timestamp);
+        break;
+      }
+      case H2: {
+        upsert = "MERGE INTO " + table + " (" + fingerprint + ", " + timestamp + ") KEY (" + fingerprint + ")"
+          + " VALUES (?, ?)";
+        deleteExpired = deleteExpiredChunk(table, id, timestamp);
+        selectPage = selectPage(table, id, fingerprint);
+        createLegacyFingerprintIndex = createIndexIfNotExists(legacyFingerprintIndex, legacyTable, fingerprint);
+        createLegacyTimestampIndex = createIndexIfNotExists(legacyTimestampIndex, legacyTable, timestamp);
+        break;
+      }
+      default: {
+        throw new IllegalArgumentException("Unsupported database type " + type);
+      }
+    }
+
+    delete = "DELETE FROM " + table + " WHERE " + fingerprint + " = ?";
+    selectExpired = "SELECT " + fingerprint + " FROM " + table + " WHERE " + timestamp + " < ?";
+    selectFingerprint = "SELECT 1 FROM " + table + " WHERE " + fingerprint + " = ?";
+
+    // New rows always get a higher ID (even if they were removed before), so a sync can continue where the last one
+    // stopped; the timestamp can't be used for this, since it's the time of the verification, not of the insert
+    selectChanges = "SELECT " + id + ", " + fingerprint + " FROM " + table + " WHERE " + id + " > ?"
+      + " ORDER BY " + id + limit(type, String.valueOf(SYNC_LIMIT));
+    insertRemoval = "INSERT INTO " + removalsTable + " (" + fingerprint + ", " + timestamp + ") VALUES (?, ?)";
+    selectRemovals = "SELECT " + id + ", " + fingerprint + " FROM " + removalsTable + " WHERE " + id + " > ?"
+      + " ORDER BY " + id + limit(type, String.valueOf(SYNC_LIMIT));
+    selectLastRemoval = "SELECT MAX(" + id + ") FROM " + removalsTable;
+    deleteExpiredRemovals = "DELETE FROM " + removalsTable + " WHERE " + timestamp + " < ?";
+
+    selectEntries = "SELECT " + id + ", " + fingerprint + ", " + timestamp + " FROM " + table
+      + " WHERE " + id + " > ? ORDER BY " + id + limit(type, "?");
+    selectTimestamps = "SELECT " + fingerprint + ", " + timestamp + " FROM " + table
+      + " WHERE " + fingerprint + " IN (";
+  }
+
+  /**
+   * @return a statement that selects the timestamps of the given number of fingerprints
+   */
+  String getSelectTimestamps(final int fingerprints) {
+    final StringBuilder builder = new StringBuilder(selectTimestamps);
+    for (int i = 0; i < fingerprints; i++) {
+      builder.append(i == 0 ? "?" : ", ?");
+    }
+    return builder.append(')').toString();
+  }
+
+  private static @NotNull String limit(final SonarConfiguration.Database.@NotNull Type type,
+                                       final @NotNull String rows) {
+    if (type == SonarConfiguration.Database.Type.MYSQL || type == SonarConfiguration.Database.Type.MARIADB) {
+      return " LIMIT " + rows;
+    }
+    return " FETCH FIRST " + rows + " ROWS ONLY";
+  }
+
+  private static @NotNull String deleteExpiredChunk(final @NotNull String table,
+                                                    final @NotNull String id,
+                                                    final @NotNull String timestamp) {
+    return "DELETE FROM " + table + " WHERE " + id + " IN (SELECT " + id + " FROM " + table
+      + " WHERE " + timestamp + " < ? FETCH FIRST " + EXPIRY_CHUNK_SIZE + " ROWS ONLY)";
+  }
+
+  private static @NotNull String createIndexIfNotExists(final @NotNull String indexName,
+                                                       final @NotNull String table,
+                                                       final @NotNull String column) {
+    return "CREATE INDEX IF NOT EXISTS " + indexName + " ON " + table + " (" + column + ")";
+  }
+
+  private static @NotNull String selectPage(final @NotNull String table,
+                                           final @NotNull String id,
+                                           final @NotNull String fingerprint) {
+    return "SELECT " + id + ", " + fingerprint + " FROM " + table + " WHERE " + id + " > ?"
+      + " ORDER BY " + id + " FETCH FIRST " + PAGE_SIZE + " ROWS ONLY";
+  }
+
+  private static @NotNull String escape(final @NotNull DatabaseType databaseType, final @NotNull String name) {
+    final StringBuilder builder = new StringBuilder();
+    databaseType.appendEscapedEntityName(builder, name);
+    return builder.toString();
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2026 Sonar Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xyz.jonesdev.sonar.api.database.controller;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongConsumer;
+
+/**
+ * Persistent storage of the fingerprints of verified players and the time they were verified.
+ * <br>
+ * Implementations have to be thread-safe; lookups happen concurrently with writes.
+ */
+interface VerifiedPlayerStorage {
+  /**
+   * Creates the storage or migrates it to the latest version
+   */
+  void open() throws Exception;
+
+  /**
+   * Returns the key used to calculate fingerprints, so fingerprints stay the same after a restart
+   * and on all servers sharing the storage
+   *
+   * @param generated Key that is stored if the storage doesn't have a key yet
+   */
+  byte @NotNull [] loadKey(final byte @NotNull [] generated) throws Exception;
+
+  /**
+   * @return the number of stored players, not counting removed ones
+   */
+  long count() throws Exception;
+
+  /**
+   * Passes every stored fingerprint to the consumer
+   *
+   * @return the number of loaded fingerprints
+   */
+  int load(final @NotNull LongConsumer consumer) throws Exception;
+
+  boolean contains(final long fingerprint) throws Exception;
+
+  /**
+   * Looks up all given fingerprints at once
+   *
+   * @return the timestamps of the fingerprints that are stored
+   */
+  @NotNull Map<Long, Long> getTimestamps(final @NotNull Collection<Long> fingerprints) throws Exception;
+
+  /**
+   * Reads the players after the given page, in an order that doesn't change when other players are added
+   *
+   * @param previous Previous page, or null to read the first page
+   */
+  @NotNull VerifiedPlayerPage page(final @Nullable VerifiedPlayerPage previous, final int limit) throws Exception;
+
+  /**
+   * Saves the changes atomically
+   *
+   * @param changes Fingerprints mapped to the timestamp of their verification, or to
+   *                {@link Long#MIN_VALUE} if they have been removed
+   */
+  void write(final @NotNull List<Map.Entry<Long, Long>> changes) throws Exception;
+
+  /**
+   * Removes all players verified before the given timestamp
+   *
+   * @param removed Notified of every removed fingerprint, if not null
+   * @return the number of removed players
+   */
+  int removeExpired(final long timestamp, final @Nullable LongConsumer removed) throws Exception;
+
+  /**
+   * Reads the changes made by other servers sharing the storage since the last sync
+   *
+   * @param added Notified of every player that has been verified
+   * @param removed Notified of every player that has been removed
+   * @return the number of changes
+   */
+  default int sync(final @NotNull LongConsumer added, final @NotNull LongConsumer removed) throws Exception {
+    return 0;
+  }
+
+  /**
+   * Removes the player that has been verified by an older version and migrated to a new fingerprint
+   */
+  default void removeLegacy(final @NotNull String legacyFingerprint) throws Exception {
+  }
+
+  void clear() throws Exception;
+
+  void close() throws Exception;
+}
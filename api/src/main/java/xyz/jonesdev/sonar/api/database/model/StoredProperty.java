@@ -0,0 +1,54 @@
+/*
+ * Copyright (C) 2026 Sonar Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xyz.jonesdev.sonar.api.database.model;
+
+import com.j256.ormlite.field.DatabaseField;
+import com.j256.ormlite.table.DatabaseTable;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Value that has to be shared by all servers using the same database
+ */
+@Getter
+@ToString
+@DatabaseTable(tableName = "sonar_properties")
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public final class StoredProperty {
+  @DatabaseField(
+    columnName = "name",
+    id = true,
+    width = 64
+  )
+  private String name;
+
+  @DatabaseField(
+    columnName = "value",
+    canBeNull = false
+  )
+  private String value;
+
+  public StoredProperty(final @NotNull String name,
+                        final @NotNull String value) {
+    this.name = name;
+    this.value = value;
+  }
+}
@@ -23,13 +23,12 @@
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
-import org.jetbrains.annotations.NotNull;
 
 import java.sql.Timestamp;
 
 @Getter
 @ToString
-@DatabaseTable(tableName = "sonar_fingerprints")
+@DatabaseTable(tableName = "sonar_verified_players")
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public final class VerifiedPlayer {
   @SuppressWarnings("unused")
@@ -39,17 +38,18 @@ public final class VerifiedPlayer {
   @DatabaseField(
     columnName = "fingerprint",
     canBeNull = false,
-    width = 48
+    uniqueIndexName = "sonar_verified_players_fingerprint_key"
   )
-  private String fingerprint;
+  private long fingerprint;
 
   @DatabaseField(
     columnName = "timestamp",
-    canBeNull = false
+    canBeNull = false,
+    indexName = "sonar_verified_players_timestamp_idx"
   )
   private Timestamp timestamp;
 
-  public VerifiedPlayer(final @NotNull String fingerprint,
+  public VerifiedPlayer(final long fingerprint,
                         final long timestamp) {
     this.fingerprint = fingerprint;
     this.timestamp = new Timestamp(timestamp);
@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2026 Sonar Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xyz.jonesdev.sonar.api.fingerprint;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter for fingerprints, which tells for sure if a fingerprint has never been added.
+ * <br>
+ * This only needs about 10 bits per fingerprint for a false positive rate of roughly 1%.
+ * Fingerprints can't be removed; removed fingerprints just become false positives.
+ */
+public final class FingerprintFilter {
+  private static final int HASHES = 7;
+  private static final int BITS_PER_ENTRY = 10;
+  private static final long MIN_BITS = 1L << 16;
+  private static final long MAX_BITS = 1L << 34;
+
+  private final AtomicLongArray words;
+  private final long mask;
+
+  public FingerprintFilter(final long expectedEntries) {
+    final long bits = Math.min(Math.max(Long.highestOneBit(Math.max(expectedEntries, 1L) * BITS_PER_ENTRY - 1L) << 1,
+      MIN_BITS), MAX_BITS);
+    this.words = new AtomicLongArray((int) (bits >>> 6));
+    this.mask = bits - 1L;
+  }
+
+  public boolean mightContain(final long fingerprint) {
+    final long hash0 = fingerprint >>> 1;
+    final long hash1 = mix(fingerprint);
+    for (int i = 0; i < HASHES; i++) {
+      final long bit = (hash0 + i * hash1) & mask;
+      if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0L) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return true if the fingerprint has definitely not been added before
+   */
+  public boolean put(final long fingerprint) {
+    final long hash0 = fingerprint >>> 1;
+    final long hash1 = mix(fingerprint);
+    boolean changed = false;
+    for (int i = 0; i < HASHES; i++) {
+      final long bit = (hash0 + i * hash1) & mask;
+      final int index = (int) (bit >>> 6);
+      final long value = 1L << bit;
+      long word;
+      while (((word = words.get(index)) & value) == 0L) {
+        if (words.compareAndSet(index, word, word | value)) {
+          changed = true;
+          break;
+        }
+      }
+    }
+    return changed;
+  }
+
+  private static long mix(final long fingerprint) {
+    final long hash = (fingerprint ^ (fingerprint >>> 29)) * 0xBF58476D1CE4E5B9L;
+    // Use an odd step, so the probes never cycle through the same few bits
+    return (hash ^ (hash >>> 32)) | 1L;
+  }
+}
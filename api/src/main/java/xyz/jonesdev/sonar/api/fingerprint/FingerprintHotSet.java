@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2026 Sonar Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xyz.jonesdev.sonar.api.fingerprint;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Set of recently used fingerprints, split into segments by the time they were last used.
+ * <br>
+ * Fingerprints are added to the newest segment. Once a segment has been the newest one for
+ * long enough (or once it's full), a new segment is started and the oldest segment is dropped,
+ * so a fingerprint is forgotten between 7/8 and 8/8 of the maximum idle time after it was last used.
+ * Fingerprints found in an older segment are moved back into the newest one.
+ */
+public final class FingerprintHotSet {
+  private static final int SEGMENTS = 8;
+
+  private volatile int segmentCapacity;
+  private volatile long segmentMillis;
+  // Called whenever a fingerprint is moved back into the newest segment
+  private final @Nullable LongConsumer promotionListener;
+  // The newest segment comes first; the array is replaced as a whole, so readers never have to lock
+  private volatile FingerprintSet[] segments = newSegments(SEGMENTS);
+  private volatile long nextRotation;
+
+  /**
+   * @param capacity Maximum number of fingerprints (0 for no limit)
+   * @param maximumIdleMillis Time after which unused fingerprints are forgotten (0 to keep them forever)
+   * @param promotionListener Notified when a fingerprint that hasn't been used in a while is used again
+   */
+  public FingerprintHotSet(final int capacity, final long maximumIdleMillis,
+                           final @Nullable LongConsumer promotionListener) {
+    this.promotionListener = promotionListener;
+    resize(capacity, maximumIdleMillis);
+  }
+
+  /**
+   * Changes the limits without forgetting any fingerprints; fingerprints that exceed
+   * the new limits are dropped gradually as new segments are started
+   *
+   * @see #FingerprintHotSet(int, long, LongConsumer)
+   */
+  public synchronized void resize(final int capacity, final long maximumIdleMillis) {
+    segmentCapacity = capacity > 0 ? Math.max(capacity / SEGMENTS, 1) : Integer.MAX_VALUE;
+    segmentMillis = maximumIdleMillis > 0L ? Math.max(maximumIdleMillis / SEGMENTS, 1L) : Long.MAX_VALUE;
+    nextRotation = segmentMillis == Long.MAX_VALUE ? Long.MAX_VALUE : System.currentTimeMillis() + segmentMillis;
+  }
+
+  public boolean contains(final long fingerprint) {
+    expire();
+    final FingerprintSet[] segments = this.segments;
+    if (segments[0].contains(fingerprint)) {
+      return true;
+    }
+    for (int i = 1; i < segments.length; i++) {
+      if (segments[i].contains(fingerprint)) {
+        if (promote(fingerprint) && promotionListener != null) {
+          promotionListener.accept(fingerprint);
+        }
+        return true;
+      }
+    }
+    return false;
+  }
+
+  public synchronized void add(final long fingerprint) {
+    expire();
+    if (segments[0].size() >= segmentCapacity) {
+      rotate(1);
+    }
+    segments[0].add(fingerprint);
+  }
+
+  public synchronized void remove(final long fingerprint) {
+    for (final FingerprintSet segment : segments) {
+      segment.remove(fingerprint);
+    }
+  }
+
+  public synchronized void clear() {
+    segments = newSegments(SEGMENTS);
+  }
+
+  public int size() {
+    expire();
+    int size = 0;
+    for (final FingerprintSet segment : segments) {
+      size += segment.size();
+    }
+    return size;
+  }
+
+  /**
+   * Drops the segments that have expired; this happens lazily whenever the set is used
+   */
+  public void expire() {
+    if (System.currentTimeMillis() < nextRotation) {
+      return;
+    }
+    synchronized (this) {
+      final long now = System.currentTimeMillis();
+      if (now >= nextRotation) {
+        final long elapsed = (now - nextRotation) / segmentMillis + 1L;
+        rotate((int) Math.min(elapsed, SEGMENTS));
+        nextRotation += elapsed * segmentMillis;
+      }
+    }
+  }
+
+  private synchronized boolean promote(final long fingerprint) {
+    final FingerprintSet[] segments = this.segments;
+    boolean found = false;
+    for (int i = 1; i < segments.length; i++) {
+      found |= segments[i].remove(fingerprint);
+    }
+    // The fingerprint might have been removed or promoted by another thread in the meantime
+    if (found) {
+      add(fingerprint);
+    }
+    return found;
+  }
+
+  private void rotate(final int count) {
+    final FingerprintSet[] rotated = newSegments(count);
+    System.arraycopy(segments, 0, rotated, count, SEGMENTS - count);
+    segments = rotated;
+  }
+
+  private static FingerprintSet @NotNull [] newSegments(final int count) {
+    final FingerprintSet[] segments = new FingerprintSet[SEGMENTS];
+    for (int i = 0; i < count; i++) {
+      segments[i] = new FingerprintSet();
+    }
+    return segments;
+  }
+}
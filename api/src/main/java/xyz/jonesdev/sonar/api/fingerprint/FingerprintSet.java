@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2026 Sonar Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xyz.jonesdev.sonar.api.fingerprint;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Set of fingerprints stored in an open-addressing table of primitive longs.
+ * <br>
+ * Lookups never lock, since they happen on every login. Changes are rare
+ * (usually once per verified player) and are serialized; the table is copied
+ * whenever it needs to grow or shrink, so readers always see a consistent table.
+ */
+public final class FingerprintSet {
+  private static final int INITIAL_CAPACITY = 1 << 10;
+  private static final long EMPTY = 0L;
+  // Fingerprints are always odd (see FingerprintingUtil), so this can never be a fingerprint
+  private static final long REMOVED = Long.MIN_VALUE;
+
+  private volatile AtomicLongArray table = new AtomicLongArray(INITIAL_CAPACITY);
+  // Number of slots that aren't empty, including removed slots (guarded by this)
+  private int used;
+  private volatile int size;
+
+  public boolean contains(final long fingerprint) {
+    final AtomicLongArray table = this.table;
+    final int mask = table.length() - 1;
+    for (int index = spread(fingerprint) & mask; ; index = (index + 1) & mask) {
+      final long value = table.get(index);
+      if (value == fingerprint) {
+        return true;
+      }
+      if (value == EMPTY) {
+        return false;
+      }
+    }
+  }
+
+  /**
+   * @return true if the fingerprint wasn't already in the set
+   */
+  public synchronized boolean add(final long fingerprint) {
+    checkFingerprint(fingerprint);
+    if (contains(fingerprint)) {
+      return false;
+    }
+    if ((used + 1) * 4L > table.length() * 3L) {
+      rehash(capacityFor(size + 1));
+    }
+    final AtomicLongArray table = this.table;
+    final int mask = table.length() - 1;
+    int index = spread(fingerprint) & mask;
+    long value;
+    // Re-use the first removed slot, since we already know the fingerprint isn't in the table
+    while ((value = table.get(index)) != EMPTY && value != REMOVED) {
+      index = (index + 1) & mask;
+    }
+    if (value == EMPTY) {
+      used++;
+    }
+    table.set(index, fingerprint);
+    size++;
+    return true;
+  }
+
+  /**
+   * @return true if the fingerprint was in the set
+   */
+  public synchronized boolean remove(final long fingerprint) {
+    checkFingerprint(fingerprint);
+    final AtomicLongArray table = this.table;
+    final int mask = table.length() - 1;
+    for (int index = spread(fingerprint) & mask; ; index = (index + 1) & mask) {
+      final long value = table.get(index);
+      if (value == EMPTY) {
+        return false;
+      }
+      if (value == fingerprint) {
+        // Mark the slot as removed instead of emptying it, so concurrent lookups don't stop early
+        table.set(index, REMOVED);
+        size--;
+        if (table.length() > INITIAL_CAPACITY && size * 8L < table.length()) {
+          rehash(capacityFor(size));
+        }
+        return true;
+      }
+    }
+  }
+
+  public synchronized void clear() {
+    table = new AtomicLongArray(INITIAL_CAPACITY);
+    used = 0;
+    size = 0;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  private void rehash(final int capacity) {
+    final AtomicLongArray oldTable = table;
+    final AtomicLongArray newTable = new AtomicLongArray(capacity);
+    final int mask = capacity - 1;
+    for (int i = 0; i < oldTable.length(); i++) {
+      final long value = oldTable.get(i);
+      if (value != EMPTY && value != REMOVED) {
+        int index = spread(value) & mask;
+        while (newTable.get(index) != EMPTY) {
+          index = (index + 1) & mask;
+        }
+        newTable.set(index, value);
+      }
+    }
+    used = size;
+    // Publish the new table only after it has been filled
+    table = newTable;
+  }
+
+  private static int capacityFor(final int size) {
+    // Leave enough room for the table to stay at most half full after a rehash
+    final int capacity = Integer.highestOneBit(Math.max(size, 1) * 2 - 1) << 1;
+    return Math.max(capacity, INITIAL_CAPACITY);
+  }
+
+  private static int spread(final long fingerprint) {
+    // The lowest bit of a fingerprint is always set, so use the upper bits instead
+    return (int) ((fingerprint * 0x9E3779B97F4A7C15L) >>> 32);
+  }
+
+  private static void checkFingerprint(final long fingerprint) {
+    if ((fingerprint & 1L) == 0L) {
+      throw new IllegalArgumentException("Invalid fingerprint " + fingerprint);
+    }
+  }
+}
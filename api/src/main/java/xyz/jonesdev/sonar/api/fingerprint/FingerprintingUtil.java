@@ -19,15 +19,77 @@
 
 import lombok.experimental.UtilityClass;
 import org.jetbrains.annotations.NotNull;
+import xyz.jonesdev.sonar.api.antibot.AddressUtil;
+
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.security.SecureRandom;
 
 @UtilityClass
 public class FingerprintingUtil {
+  public static final int KEY_LENGTH = 16;
+  private static final SecureRandom RANDOM = new SecureRandom();
+  // Random for every installation, so nobody can calculate fingerprints in advance.
+  // The key is stored next to the verified players (see VerifiedPlayerController), so fingerprints
+  // are still valid after a restart and can be shared by all servers using the same database
+  private static volatile long[] key = unpackKey(generateKey());
+
+  /**
+   * @return a new random key to calculate fingerprints with
+   */
+  public byte @NotNull [] generateKey() {
+    final byte[] key = new byte[KEY_LENGTH];
+    RANDOM.nextBytes(key);
+    return key;
+  }
+
+  /**
+   * Changes the key used to calculate fingerprints.
+   * Fingerprints calculated using a different key will no longer match.
+   */
+  public void setKey(final byte @NotNull [] key) {
+    FingerprintingUtil.key = unpackKey(key);
+  }
+
+  private long @NotNull [] unpackKey(final byte @NotNull [] key) {
+    if (key.length != KEY_LENGTH) {
+      throw new IllegalArgumentException("Key must be " + KEY_LENGTH + " bytes long");
+    }
+    final ByteBuffer buffer = ByteBuffer.wrap(key).order(ByteOrder.LITTLE_ENDIAN);
+    return new long[] {buffer.getLong(0), buffer.getLong(Long.BYTES)};
+  }
+
+  /**
+   * Returns a 64-bit SipHash-2-4 of the IP address and the username.
+   * <br>
+   * The lowest bit is always set, so a fingerprint can never be 0 (see {@link FingerprintSet}).
+   */
+  public long getFingerprint(final @NotNull String username,
+                             final @NotNull InetAddress inetAddress) {
+    if (inetAddress instanceof Inet4Address) {
+      return sipHash(0L, AddressUtil.getIPv4Mapped((Inet4Address) inetAddress), username) | 1L;
+    }
+    final byte[] address = inetAddress.getAddress();
+    return sipHash(AddressUtil.pack(address, 0), AddressUtil.pack(address, Long.BYTES), username) | 1L;
+  }
+
+  /**
+   * Returns a 64-bit SipHash-2-4 of the given characters (for example, a legacy fingerprint)
+   */
+  public long hash(final @NotNull CharSequence chars) {
+    return sipHash(0L, 0L, chars) | 1L;
+  }
 
   /**
    * Returns a hex string representing a hash of the username and IP address
+   *
+   * @deprecated Only used to migrate fingerprints stored by older versions
    */
-  public @NotNull String getFingerprint(final @NotNull String username,
-                                        final @NotNull String hostAddress) {
+  @Deprecated
+  public @NotNull String getLegacyFingerprint(final @NotNull String username,
+                                              final @NotNull String hostAddress) {
     final int hash0 = username.hashCode();
     final int hash1 = hostAddress.hashCode();
     final int combined = hash0 + hash1;
@@ -35,4 +97,54 @@ public class FingerprintingUtil {
       + Integer.toHexString(combined << 2)
       + Integer.toHexString(hash1 >> 4);
   }
+
+  /**
+   * SipHash-2-4 of the 16-byte prefix (little-endian) followed by the UTF-16LE characters
+   */
+  private long sipHash(final long prefix0, final long prefix1, final @NotNull CharSequence chars) {
+    final long[] key = FingerprintingUtil.key;
+    long v0 = key[0] ^ 0x736f6d6570736575L;
+    long v1 = key[1] ^ 0x646f72616e646f6dL;
+    long v2 = key[0] ^ 0x6c7967656e657261L;
+    long v3 = key[1] ^ 0x7465646279746573L;
+
+    final int length = chars.length();
+    // Each word holds 4 characters; the last word holds the remaining characters and the length
+    final int lastWord = 2 + length / 4;
+    for (int word = 0; word <= lastWord; word++) {
+      long message = 0L;
+      if (word == 0) {
+        message = prefix0;
+      } else if (word == 1) {
+        message = prefix1;
+      } else {
+        final int offset = (word - 2) * 4;
+        final int end = word == lastWord ? length : offset + 4;
+        for (int i = offset; i < end; i++) {
+          message |= (long) chars.charAt(i) << ((i - offset) * 16);
+        }
+        if (word == lastWord) {
+          message |= (long) ((2 * Long.BYTES + length * 2) & 0xFF) << 56;
+        }
+      }
+
+      v3 ^= message;
+      for (int round = 0; round < 2; round++) {
+        v0 += v1; v1 = Long.rotateLeft(v1, 13); v1 ^= v0; v0 = Long.rotateLeft(v0, 32);
+        v2 += v3; v3 = Long.rotateLeft(v3, 16); v3 ^= v2;
+        v0 += v3; v3 = Long.rotateLeft(v3, 21); v3 ^= v0;
+        v2 += v1; v1 = Long.rotateLeft(v1, 17); v1 ^= v2; v2 = Long.rotateLeft(v2, 32);
+      }
+      v0 ^= message;
+    }
+
+    v2 ^= 0xFFL;
+    for (int round = 0; round < 4; round++) {
+      v0 += v1; v1 = Long.rotateLeft(v1, 13); v1 ^= v0; v0 = Long.rotateLeft(v0, 32);
+      v2 += v3; v3 = Long.rotateLeft(v3, 16); v3 ^= v2;
+      v0 += v3; v3 = Long.rotateLeft(v3, 21); v3 ^= v0;
+      v2 += v1; v1 = Long.rotateLeft(v1, 17); v1 ^= v2; v2 = Long.rotateLeft(v2, 32);
+    }
+    return v0 ^ v1 ^ v2 ^ v3;
+  }
 }
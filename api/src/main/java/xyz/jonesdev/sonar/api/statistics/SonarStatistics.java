@@ -23,6 +23,10 @@ public interface SonarStatistics {
 
   long getLoginsPerSecond();
 
+  long getFailedVerificationsPerSecond();
+
+  long getSuccessfulVerificationsPerSecond();
+
   long getCurrentIncomingBandwidth();
 
   long getCurrentOutgoingBandwidth();
@@ -53,8 +53,8 @@ public static final class AttackStatistics {
 
   public void checkIfUnderAttack() {
     final long joinsPerSecond = Sonar.get0().getStatistics().getLoginsPerSecond();
-    final int verifyingPlayers = Sonar.get0().getAntiBot().getConnected().size();
-    final int queuedPlayers = Sonar.get0().getAntiBot().getQueue().getPlayers().size();
+    final int verifyingPlayers = Sonar.get0().getAntiBot().getConnectedCount();
+    final int queuedPlayers = Sonar.get0().getAntiBot().getQueue().size();
     final int minPlayers = Sonar.get0().getConfig().getMinPlayersForAttack();
 
     if (joinsPerSecond > minPlayers // Check the number of bots/joins per second.
@@ -66,7 +66,7 @@ public void checkIfUnderAttack() {
       // An attack has been detected
       if (currentAttack == null) {
         currentAttack = new AttackStatistics();
-        currentAttack.successfulVerifications = Sonar.get0().getVerifiedPlayerController().getCache().size();
+        currentAttack.successfulVerifications = Sonar.get0().getVerifiedPlayerController().size();
         currentAttack.failedVerifications = Sonar.get0().getStatistics().getTotalFailedVerifications();
         Sonar.get0().getEventManager().publish(new AttackDetectedEvent());
         Sonar.get0().getChatNotificationHandler().handleNotification();
@@ -116,9 +116,9 @@ public void checkIfUnderAttack() {
               final String formattedDuration = String.format("%d minutes, %.0f seconds", minutes, seconds);
               final String startTimestamp = String.valueOf(currentAttack.duration.getStart() / 1000L);
               final String endTimestamp = String.valueOf(System.currentTimeMillis() / 1000L);
-              final long blacklisted = Sonar.get0().getAntiBot().getBlacklist().estimatedSize();
+              final long blacklisted = Sonar.get0().getAntiBot().getBlacklist().size();
               // Calculate during-attack-statistics using their deltas
-              final long totalVerified = Sonar.get0().getVerifiedPlayerController().getCache().size();
+              final long totalVerified = Sonar.get0().getVerifiedPlayerController().size();
               final long verified = Math.max(totalVerified - currentAttack.successfulVerifications, 0);
               final long totalFailed = Sonar.get0().getStatistics().getTotalFailedVerifications();
               final long failed = Math.max(totalFailed - currentAttack.failedVerifications, 0);
@@ -28,7 +28,6 @@
     compileOnly(rootProject.libs.adventure.minimessage)
     compileOnly(rootProject.libs.adventure.serializer)
     compileOnly(rootProject.libs.ormlite)
-    compileOnly(rootProject.libs.caffeine)
     compileOnly(rootProject.libs.netty)
     compileOnly(rootProject.libs.libby.core)
   }
@@ -57,7 +56,6 @@
       relocate("com.simpleyaml", "xyz.jonesdev.sonar.libs.yaml")
       relocate("com.google.gson", "xyz.jonesdev.sonar.libs.gson")
       relocate("com.j256.ormlite", "xyz.jonesdev.sonar.libs.ormlite")
-      relocate("com.github.benmanes.caffeine", "xyz.jonesdev.sonar.libs.caffeine")
       relocate("com.mysql", "xyz.jonesdev.sonar.libs.mysql")
       relocate("org.mariadb", "xyz.jonesdev.sonar.libs.mariadb")
       relocate("org.h2", "xyz.jonesdev.sonar.libs.h2")
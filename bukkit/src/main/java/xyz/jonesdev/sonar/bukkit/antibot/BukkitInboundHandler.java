@@ -33,6 +33,7 @@
 
 import java.net.InetSocketAddress;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static xyz.jonesdev.sonar.api.antibot.ChannelPipelines.SONAR_INBOUND_HANDLER;
 import static xyz.jonesdev.sonar.common.protocol.packets.handshake.HandshakePacket.*;
@@ -131,17 +132,29 @@ public void channelRead(final @NotNull ChannelHandlerContext ctx, final Object m
         final InetSocketAddress socketAddress = (InetSocketAddress) ctx.channel().remoteAddress();
         // We've done our job - deject this pipeline
         ctx.pipeline().remove(this);
+        // Sonar might only let the player log in after looking them up asynchronously,
+        // so hold on to the login packet until it has been passed on or the channel is closed
+        final AtomicReference<ByteBuf> loginPacket = new AtomicReference<>(byteBuf);
+        ctx.channel().closeFuture().addListener(future -> {
+          final ByteBuf unused = loginPacket.getAndSet(null);
+          if (unused != null) {
+            unused.release();
+          }
+        });
         // Let Sonar process the login packet
         handleLogin(ctx, () -> {
-          byteBuf.readerIndex(originalReaderIndex);
-          ctx.fireChannelRead(byteBuf.retain());
+          final ByteBuf buffer = loginPacket.getAndSet(null);
+          if (buffer == null) {
+            return;
+          }
+          buffer.readerIndex(originalReaderIndex);
+          ctx.fireChannelRead(buffer);
           // TODO: recode this?
           final ChannelHandler inboundHandler = ctx.pipeline().remove(SONAR_INBOUND_HANDLER);
           if (inboundHandler != null && channelRemovalListener != null) {
             channelRemovalListener.accept(ctx.pipeline(), SONAR_INBOUND_HANDLER, inboundHandler);
           }
         }, loginStart.getUsername(), socketAddress);
-        byteBuf.release();
         return;
       }
 
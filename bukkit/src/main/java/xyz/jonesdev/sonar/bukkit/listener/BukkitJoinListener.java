@@ -25,6 +25,7 @@
 import org.jetbrains.annotations.NotNull;
 import xyz.jonesdev.sonar.api.Sonar;
 import xyz.jonesdev.sonar.bukkit.antibot.BukkitInjector;
+import xyz.jonesdev.sonar.common.InboundHandlerAdapter;
 import xyz.jonesdev.sonar.common.util.FakeChannelUtil;
 
 import java.lang.invoke.MethodHandle;
@@ -32,8 +33,6 @@
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 
-import static xyz.jonesdev.sonar.api.antibot.ChannelPipelines.SONAR_BANDWIDTH;
-
 // https://github.com/ViaVersion/ViaVersion/blob/master/bukkit/src/main/java/com/viaversion/viaversion/bukkit/listeners/JoinListener.java
 public final class BukkitJoinListener implements Listener {
   private static MethodHandle _handleMethod;
@@ -87,8 +86,8 @@ public void handle(final @NotNull PlayerJoinEvent event) {
         return;
       }
 
-      // Close the channel if Sonar's handlers are not found when the PlayerJoinEvent is called
-      if (channel.pipeline().context(SONAR_BANDWIDTH) == null) {
+      // Close the channel if Sonar hasn't processed the connection when the PlayerJoinEvent is called
+      if (!channel.hasAttr(InboundHandlerAdapter.HANDSHAKE_RECEIVED)) {
         channel.close();
       }
     } catch (Throwable throwable) {
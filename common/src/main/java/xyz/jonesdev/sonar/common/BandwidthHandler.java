@@ -37,7 +37,7 @@ public void channelRead(final ChannelHandlerContext ctx, final @NotNull Object m
     if (msg instanceof ByteBuf) {
       // Increment the incoming traffic by the number of readable bytes
       final int readableBytes = ((ByteBuf) msg).readableBytes();
-      GlobalSonarStatistics.perSecondIncomingTraffic += readableBytes;
+      GlobalSonarStatistics.countIncomingTraffic(readableBytes);
     }
     ctx.fireChannelRead(msg);
   }
@@ -47,7 +47,7 @@ public void write(final ChannelHandlerContext ctx, final Object msg, final Chann
     if (msg instanceof ByteBuf) {
       // Increment the outgoing traffic by the number of readable bytes
       final int readableBytes = ((ByteBuf) msg).readableBytes();
-      GlobalSonarStatistics.perSecondOutgoingTraffic += readableBytes;
+      GlobalSonarStatistics.countOutgoingTraffic(readableBytes);
     }
     ctx.write(msg, promise);
   }
@@ -17,18 +17,23 @@
 
 package xyz.jonesdev.sonar.common;
 
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
 import io.netty.channel.ChannelPipeline;
+import io.netty.handler.codec.haproxy.HAProxyMessageDecoder;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import org.jetbrains.annotations.NotNull;
 import xyz.jonesdev.sonar.api.Sonar;
+import xyz.jonesdev.sonar.api.antibot.ConnectionLimiter;
 import xyz.jonesdev.sonar.common.netty.TailExceptionsHandler;
 import xyz.jonesdev.sonar.common.statistics.GlobalSonarStatistics;
+import xyz.jonesdev.sonar.common.verification.VerificationPolicy;
 
 import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.util.function.Consumer;
 
 @RequiredArgsConstructor
@@ -37,45 +42,82 @@ public final class InboundHandler extends ChannelInboundHandlerAdapter {
   @Setter
   @Getter
   private InetAddress inetAddress;
+  // Set if the connection has been counted by the connection limiter
+  private InetAddress limitedAddress;
+  private boolean rejected;
 
   @Override
   public void channelActive(final @NotNull ChannelHandlerContext ctx) throws Exception {
     // Increase connections per second for the action bar verbose
     GlobalSonarStatistics.countConnection();
+    // Close unwanted connections before the server or Sonar spend any resources on them
+    if (!admit(ctx.channel())) {
+      rejected = true;
+      ctx.close();
+      return;
+    }
     // Make sure to let the server handle this
     ctx.fireChannelActive();
     // Add the packet handler pipeline
     sonarPipelineInjector.accept(ctx.pipeline());
   }
 
+  /**
+   * Checks if the connection is allowed solely based on its remote address
+   */
+  private boolean admit(final @NotNull Channel channel) {
+    // The remote address is the address of the proxy if the PROXY protocol is used;
+    // we only know the real address once the handshake has been decoded
+    if (!(channel.remoteAddress() instanceof InetSocketAddress)
+      || channel.pipeline().get(HAProxyMessageDecoder.class) != null) {
+      return true;
+    }
+    final InetAddress inetAddress = ((InetSocketAddress) channel.remoteAddress()).getAddress();
+    final VerificationPolicy policy = VerificationPolicy.get();
+    final int threshold = policy.getBlacklistThreshold();
+    if (threshold > 0 && Sonar.get0().getAntiBot().getBlacklist().isBlacklisted(inetAddress,
+      threshold, policy.getBlacklistEscalation())) {
+      return false;
+    }
+    final ConnectionLimiter connectionLimiter = Sonar.get0().getAntiBot().getConnectionLimiter();
+    if (!connectionLimiter.isEnabled() || inetAddress.isLoopbackAddress()) {
+      return true;
+    }
+    if (!connectionLimiter.acquire(inetAddress)) {
+      return false;
+    }
+    limitedAddress = inetAddress;
+    return true;
+  }
+
   @Override
   public void channelInactive(final @NotNull ChannelHandlerContext ctx) throws Exception {
+    // The server has never seen this connection
+    if (rejected) {
+      return;
+    }
     // Make sure to let the server handle this
     ctx.fireChannelInactive();
+    if (limitedAddress != null) {
+      Sonar.get0().getAntiBot().getConnectionLimiter().release(limitedAddress);
+    }
     // The player can disconnect without sending the login packet first
     // Account for this by checking if the inetAddress has been set yet
     if (inetAddress != null) {
       // Remove the IP address from the queue
-      Sonar.get0().getAntiBot().getQueue().getPlayers().compute(inetAddress, (ignored, action) -> {
-        // The player is not queued, so we need to remove them from other maps as well
-        if (action == null) {
-          // Remove the IP address from the connected players, if needed
-          Sonar.get0().getAntiBot().getConnected().compute(inetAddress, (__, v) -> {
-            /*
-             * Remove this account from the online players or decrement the number of accounts
-             * with the same IP, but only if the player is logging into the backend server.
-             * We don't need to decrement the count if the player was just verified since
-             * we've never actually incremented it in the first place ¯\_(ツ)_/¯
-             */
-            if (v == null) {
-              Sonar.get0().getAntiBot().getOnline().compute(inetAddress,
-                (ignored1, count) -> count == null || count <= 1 ? null : count - 1);
-            }
-            return null;
-          });
+      // If the player is not queued, we need to remove them from other maps as well
+      if (!Sonar.get0().getAntiBot().getQueue().remove(inetAddress)) {
+        // Remove the IP address from the connected players, if needed
+        /*
+         * Remove this account from the online players or decrement the number of accounts
+         * with the same IP, but only if the player is logging into the backend server.
+         * We don't need to decrement the count if the player was just verified since
+         * we've never actually incremented it in the first place ¯\_(ツ)_/¯
+         */
+        if (!Sonar.get0().getAntiBot().removeConnected(inetAddress)) {
+          Sonar.get0().getAntiBot().decrementOnline(inetAddress);
         }
-        return null;
-      });
+      }
     }
   }
 
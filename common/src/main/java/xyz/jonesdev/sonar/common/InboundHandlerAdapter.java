@@ -18,12 +18,14 @@
 package xyz.jonesdev.sonar.common;
 
 import io.netty.channel.*;
+import io.netty.util.AttributeKey;
 import lombok.AllArgsConstructor;
 import lombok.RequiredArgsConstructor;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import xyz.jonesdev.sonar.api.Sonar;
 import xyz.jonesdev.sonar.api.antibot.protocol.ProtocolVersion;
+import xyz.jonesdev.sonar.api.database.controller.VerifiedPlayerController;
 import xyz.jonesdev.sonar.api.fingerprint.FingerprintingUtil;
 import xyz.jonesdev.sonar.common.netty.SonarTimeoutHandler;
 import xyz.jonesdev.sonar.common.protocol.SonarPacket;
@@ -34,6 +36,7 @@
 import xyz.jonesdev.sonar.common.util.GeyserUtil;
 import xyz.jonesdev.sonar.common.util.ProtocolUtil;
 import xyz.jonesdev.sonar.common.util.exception.QuietDecoderException;
+import xyz.jonesdev.sonar.common.verification.VerificationPolicy;
 
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
@@ -46,6 +49,9 @@
 @AllArgsConstructor
 @RequiredArgsConstructor
 public abstract class InboundHandlerAdapter extends ChannelInboundHandlerAdapter {
+  // Marks channels that have been processed by Sonar, even after all of Sonar's handlers have been removed
+  public static final AttributeKey<Boolean> HANDSHAKE_RECEIVED = AttributeKey.valueOf("sonar-handshake-received");
+
   protected @Nullable String username;
   protected ProtocolVersion protocolVersion;
   protected @Nullable String handshakeHostname;
@@ -68,6 +74,7 @@ protected final void handleHandshake(final @NotNull ChannelHandlerContext ctx,
     protocolVersion = ProtocolVersion.fromId(protocol);
     handshakeHostname = hostname;
     ctx.pipeline().addFirst(SONAR_BANDWIDTH, BandwidthHandler.INSTANCE);
+    ctx.channel().attr(HANDSHAKE_RECEIVED).set(Boolean.TRUE);
   }
 
   /**
@@ -79,6 +86,8 @@ protected final void handleLogin(final @NotNull ChannelHandlerContext ctx,
                                    final @NotNull InetSocketAddress socketAddress) throws Exception {
     // Count every single attempted login
     GlobalSonarStatistics.countLogin();
+    // Capture the current policy, so the whole session sees the same settings even if Sonar is reloaded
+    final VerificationPolicy policy = VerificationPolicy.get();
     // Ensure that the player sent a handshake packet
     if (protocolVersion == null) {
       throw QuietDecoderException.INSTANCE;
@@ -100,26 +109,23 @@ protected final void handleLogin(final @NotNull ChannelHandlerContext ctx,
     ctx.pipeline().get(InboundHandler.class).setInetAddress(inetAddress);
 
     // Check if Sonar is already verifying a player with the same IP address
-    if (Sonar.get0().getAntiBot().getConnected().containsKey(inetAddress)) {
+    if (Sonar.get0().getAntiBot().isConnected(inetAddress)) {
       customDisconnect(ctx.channel(), alreadyVerifying, protocolVersion);
       return;
     }
 
     // Check if the protocol ID of the player is not allowed to enter the server
-    if (Sonar.get0().getConfig().getVerification().getBlacklistedProtocols().contains(protocolVersion.getProtocol())) {
+    if (policy.isProtocolBlacklisted(protocolVersion)) {
       customDisconnect(ctx.channel(), protocolBlacklisted, protocolVersion);
       return;
     }
 
-    final String hostAddress = inetAddress.getHostAddress();
-    // Check if the player failed the verification too many times
-    final int limit = Sonar.get0().getConfig().getVerification().getBlacklistThreshold();
-    if (limit > 0) {
-      final int score = Sonar.get0().getAntiBot().getBlacklist().asMap().getOrDefault(hostAddress, 0);
-      if (score >= limit) {
-        customDisconnect(ctx.channel(), blacklisted, protocolVersion);
-        return;
-      }
+    // Check if the player (or their network) failed the verification too many times
+    final int limit = policy.getBlacklistThreshold();
+    if (limit > 0 && Sonar.get0().getAntiBot().getBlacklist().isBlacklisted(inetAddress,
+      limit, policy.getBlacklistEscalation())) {
+      customDisconnect(ctx.channel(), blacklisted, protocolVersion);
+      return;
     }
 
     // Don't continue the verification process if the verification is disabled
@@ -130,25 +136,66 @@ protected final void handleLogin(final @NotNull ChannelHandlerContext ctx,
 
     // Completely skip Geyser connections if configured
     final boolean geyser = GeyserUtil.isGeyserConnection(ctx.channel(), socketAddress);
-    if (geyser && !Sonar.get0().getConfig().getVerification().isCheckGeyser()) {
+    if (geyser && !policy.isCheckGeyser()) {
       initialLogin(ctx.channel(), inetAddress, initialLoginAction);
       return;
     }
 
     // Completely skip EaglercraftX connections if configured
     if (EaglerUtil.isEaglerConnection(ctx.channel())
-      && !Sonar.get0().getConfig().getVerification().isCheckEagler()) {
+      && !policy.isCheckEagler()) {
       initialLogin(ctx.channel(), inetAddress, initialLoginAction);
       return;
     }
 
     // Make sure we actually have to verify the player
-    final String fingerprint = FingerprintingUtil.getFingerprint(username, hostAddress);
-    if (Sonar.get0().getVerifiedPlayerController().getCache().contains(fingerprint)) {
+    final long fingerprint = FingerprintingUtil.getFingerprint(username, inetAddress);
+    final VerifiedPlayerController verifiedPlayerController = Sonar.get0().getVerifiedPlayerController();
+    if (verifiedPlayerController.isVerified(fingerprint, username, inetAddress)) {
       initialLogin(ctx.channel(), inetAddress, initialLoginAction);
       return;
     }
 
+    // The player might be in the database even though they're not in memory (yet),
+    // so look the player up before making them go through the verification again.
+    // Verified players must not be rate-limited or shed, so the number of pending lookups is bounded
+    // by the controller instead; players that can't be looked up right away have to verify again.
+    if (verifiedPlayerController.needsLookup(fingerprint)) {
+      ctx.channel().config().setAutoRead(false);
+      // The key used to calculate fingerprints might not have been loaded from the database yet,
+      // so let the controller calculate the fingerprint once it has been
+      verifiedPlayerController.lookup(username, inetAddress).whenComplete((verified, throwable) ->
+        ctx.channel().eventLoop().execute(() -> {
+          ctx.channel().config().setAutoRead(true);
+          if (!ctx.channel().isActive()) {
+            return;
+          }
+          try {
+            if (Boolean.TRUE.equals(verified)) {
+              initialLogin(ctx.channel(), inetAddress, initialLoginAction);
+            } else {
+              verify(ctx, inetAddress, username,
+                FingerprintingUtil.getFingerprint(username, inetAddress), geyser, policy);
+            }
+          } catch (Exception exception) {
+            ctx.fireExceptionCaught(exception);
+          }
+        }));
+      return;
+    }
+
+    verify(ctx, inetAddress, username, fingerprint, geyser, policy);
+  }
+
+  /**
+   * Rate-limits the player and queues them for the verification
+   */
+  private void verify(final @NotNull ChannelHandlerContext ctx,
+                      final @NotNull InetAddress inetAddress,
+                      final @NotNull String username,
+                      final long fingerprint,
+                      final boolean geyser,
+                      final @NotNull VerificationPolicy policy) {
     // Check if the IP address is currently being rate-limited
     if (!Sonar.get0().getAntiBot().getRatelimiter().attempt(inetAddress)) {
       customDisconnect(ctx.channel(), reconnectedTooFast, protocolVersion);
@@ -156,21 +203,17 @@ protected final void handleLogin(final @NotNull ChannelHandlerContext ctx,
     }
 
     // Remove all other pipelines that could still mess up something
-    rewriteProtocol(ctx, channelRemovalListener);
+    rewriteProtocol(ctx, channelRemovalListener, policy);
 
-    // Queue the connection for further processing
-    Sonar.get0().getAntiBot().getQueue().getPlayers().compute(inetAddress, (__, runnable) -> {
-      // Check if the player is already queued since we don't want bots to flood the queue
-      if (runnable != null) {
-        customDisconnect(ctx.channel(), alreadyQueued, protocolVersion);
-        // Remove other instances of this IP address from the queue
-        return null;
-      }
-
-      // Create an instance for the user and let the verification handler take over the channel
-      return () -> new UserWrapper(ctx, inetAddress, protocolVersion, username, fingerprint, geyser,
-        handshakeHostname);
-    });
+    // Queue the connection for further processing; the channel's event loop polls it from the queue.
+    // Once polled, create an instance for the user and let the verification handler take over the channel.
+    final boolean queued = Sonar.get0().getAntiBot().getQueue().offer(ctx.channel().eventLoop(), inetAddress,
+      () -> new UserWrapper(ctx, inetAddress, protocolVersion, username, fingerprint, geyser,
+        handshakeHostname, policy));
+    // Shed the connection if the player is already queued or the queue (or their network's share of it) is full
+    if (!queued) {
+      customDisconnect(ctx.channel(), alreadyQueued, protocolVersion);
+    }
   }
 
   /**
@@ -181,13 +224,16 @@ protected final void initialLogin(final @NotNull Channel channel,
                                     final @NotNull Runnable loginPacket) throws Exception {
     final int maxOnlinePerIp = Sonar.get0().getConfig().getMaxOnlinePerIp();
     if (maxOnlinePerIp > 0) {
-      final int newCount = Sonar.get0().getAntiBot().getOnline().compute(inetAddress,
-        (__, count) -> count == null ? 1 : count + 1);
+      final int newCount = Sonar.get0().getAntiBot().incrementOnline(inetAddress);
       if (newCount > maxOnlinePerIp) {
         customDisconnect(channel, tooManyOnlinePerIP, protocolVersion);
         return;
       }
     }
+    // Stop counting traffic once the player is handed over to the server, unless configured otherwise
+    if (!Sonar.get0().getConfig().isCountPlayerTraffic() && channel.pipeline().context(SONAR_BANDWIDTH) != null) {
+      channel.pipeline().remove(SONAR_BANDWIDTH);
+    }
     loginPacket.run();
   }
 
@@ -195,7 +241,8 @@ protected final void initialLogin(final @NotNull Channel channel,
    * Removes all pipelines and rewrites them using our custom handlers
    */
   private static void rewriteProtocol(final @NotNull ChannelHandlerContext ctx,
-                                      final @Nullable RemovalListener removalListener) {
+                                      final @Nullable RemovalListener removalListener,
+                                      final @NotNull VerificationPolicy policy) {
     for (final Map.Entry<String, ChannelHandler> entry : ctx.pipeline()) {
       // Don't accidentally remove Sonar's handlers
       if (entry.getKey().startsWith("sonar")
@@ -213,9 +260,7 @@ private static void rewriteProtocol(final @NotNull ChannelHandlerContext ctx,
     }
     // Add our read/write timeout handler
     ctx.pipeline().addFirst(SONAR_TIMEOUT, new SonarTimeoutHandler(
-      Sonar.get0().getConfig().getVerification().getReadTimeout(),
-      Sonar.get0().getConfig().getVerification().getWriteTimeout(),
-      TimeUnit.MILLISECONDS));
+      policy.getReadTimeout(), policy.getWriteTimeout(), TimeUnit.MILLISECONDS));
   }
 
   private static void customDisconnect(final @NotNull Channel channel,
@@ -248,7 +293,8 @@ private static void _customDisconnect(final @NotNull Channel channel,
     if (currentEncoder != null) {
       // We don't need to update the encoder if it has already been replaced by Sonar
       if (!(currentEncoder instanceof SonarPacketEncoder)) {
-        final SonarPacketEncoder newEncoder = new SonarPacketEncoder(protocolVersion);
+        // The platform's frame encoder is still present, so we don't have to frame the packets ourselves
+        final SonarPacketEncoder newEncoder = new SonarPacketEncoder(protocolVersion, false);
         newEncoder.updateRegistry(SonarPacketRegistry.LOGIN);
         channel.pipeline().replace(encoder, SONAR_PACKET_ENCODER, newEncoder);
       }
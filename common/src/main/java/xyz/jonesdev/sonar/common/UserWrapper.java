@@ -19,6 +19,7 @@
 
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.flush.FlushConsolidationHandler;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
@@ -32,7 +33,6 @@
 import xyz.jonesdev.sonar.api.event.impl.UserVerifyJoinEvent;
 import xyz.jonesdev.sonar.api.timer.SystemTimer;
 import xyz.jonesdev.sonar.common.netty.MinecraftVarInt21FrameDecoder;
-import xyz.jonesdev.sonar.common.netty.MinecraftVarIntLengthEncoder;
 import xyz.jonesdev.sonar.common.netty.TailExceptionsHandler;
 import xyz.jonesdev.sonar.common.protocol.SonarPacketDecoder;
 import xyz.jonesdev.sonar.common.protocol.SonarPacketEncoder;
@@ -42,6 +42,7 @@
 import xyz.jonesdev.sonar.common.statistics.GlobalSonarStatistics;
 import xyz.jonesdev.sonar.common.util.ProtocolUtil;
 import xyz.jonesdev.sonar.common.verification.LoginHandler;
+import xyz.jonesdev.sonar.common.verification.VerificationPolicy;
 
 import java.net.InetAddress;
 
@@ -54,11 +55,12 @@ public final class UserWrapper implements SonarUser {
   private final Channel channel;
   private final InetAddress inetAddress;
   private final ProtocolVersion protocolVersion;
-  private final String fingerprint;
+  private final long fingerprint;
   private final String username;
   private final boolean geyser;
   private final @Nullable String hostname;
   private final SystemTimer loginTimer;
+  private final VerificationPolicy policy;
   @Setter
   private boolean forceCaptcha;
 
@@ -66,9 +68,10 @@ public UserWrapper(final @NotNull ChannelHandlerContext ctx,
                      final @NotNull InetAddress inetAddress,
                      final @NotNull ProtocolVersion protocolVersion,
                      final @NotNull String username,
-                     final @NotNull String fingerprint,
+                     final long fingerprint,
                      final boolean geyser,
-                     final @Nullable String hostname) {
+                     final @Nullable String hostname,
+                     final @NotNull VerificationPolicy policy) {
     this.channel = ctx.channel();
     this.inetAddress = inetAddress;
     this.protocolVersion = protocolVersion;
@@ -77,14 +80,14 @@ public UserWrapper(final @NotNull ChannelHandlerContext ctx,
     this.geyser = geyser;
     this.hostname = hostname;
     this.loginTimer = new SystemTimer();
+    this.policy = policy;
 
     GlobalSonarStatistics.totalAttemptedVerifications++;
 
-    if (Sonar.get0().getConfig().getVerification().isLogConnections()
-      && (Sonar.get0().getAttackTracker().getCurrentAttack() == null
-      || Sonar.get0().getConfig().getVerification().isLogDuringAttack())) {
+    if (policy.isLogConnections()
+      && (Sonar.get0().getAttackTracker().getCurrentAttack() == null || policy.isLogDuringAttack())) {
       Sonar.get0().getLogger().info(
-        Sonar.get0().getConfig().getMessagesConfig().getString("verification.logs.connection")
+        policy.getConnectionLog()
           .replace("<username>", username)
           .replace("<ip>", Sonar.get0().getConfig().formatAddress(inetAddress))
           .replace("<protocol>", protocolVersion.getName()));
@@ -94,49 +97,62 @@ public UserWrapper(final @NotNull ChannelHandlerContext ctx,
     Sonar.get0().getEventManager().publish(new UserVerifyJoinEvent(this));
 
     // Run this in the channel's event loop to avoid issues
-    channel.eventLoop().execute(() -> {
-      // Make sure the channel is still active
-      if (!channel.isActive()) {
-        return;
-      }
-
-      // How? Is there some kind of de-sync or race condition?
-      if (channel.pipeline().context(SONAR_FRAME_ENCODER) != null) {
-        channel.close(); // Nope ¯\_(ツ)_/¯
-        return;
-      }
-
-      // Mark the player as connected by caching them in a map of verifying players
-      Sonar.get0().getAntiBot().getConnected().compute(inetAddress, (__, v) -> true);
-
-      // Replace normal encoder to allow custom packets
-      final SonarPacketEncoder newEncoder = new SonarPacketEncoder(protocolVersion);
-      channel.pipeline().addFirst(SONAR_FRAME_ENCODER, MinecraftVarIntLengthEncoder.INSTANCE);
-      channel.pipeline().addLast(SONAR_PACKET_ENCODER, newEncoder);
-
-      // Replace normal decoder to allow custom packets
-      final SonarPacketDecoder newDecoder = new SonarPacketDecoder(protocolVersion);
-      channel.pipeline().addFirst(SONAR_FRAME_DECODER, new MinecraftVarInt21FrameDecoder());
-      channel.pipeline().addLast(SONAR_PACKET_DECODER, newDecoder);
-
-      // We're sending the LoginSuccess packet now
-      newDecoder.updateRegistry(SonarPacketRegistry.LOGIN);
-      newEncoder.updateRegistry(SonarPacketRegistry.LOGIN);
-      // Send LoginSuccess packet to make the client think they are joining the server
-      write(SonarPacketPreparer.loginSuccess);
-
-      // pre-1.20.2 clients do not have the configuration stage
-      if (protocolVersion.lessThan(ProtocolVersion.MINECRAFT_1_20_2)) {
-        newDecoder.updateRegistry(SonarPacketRegistry.GAME);
-        newEncoder.updateRegistry(SonarPacketRegistry.GAME);
-      }
-
-      // Listen for all incoming packets by setting the packet listener
-      newDecoder.setListener(new LoginHandler(this));
-
-      // Make sure to catch all exceptions during the verification
-      channel.pipeline().addLast(SONAR_TAIL_EXCEPTIONS, TailExceptionsHandler.INSTANCE);
-    });
+    // The login queue already polls players on their own event loop, so we can usually skip the hop
+    if (channel.eventLoop().inEventLoop()) {
+      takeOverChannel();
+    } else {
+      channel.eventLoop().execute(this::takeOverChannel);
+    }
+  }
+
+  private void takeOverChannel() {
+    // Make sure the channel is still active
+    if (!channel.isActive()) {
+      return;
+    }
+
+    // How? Is there some kind of de-sync or race condition?
+    if (channel.pipeline().context(SONAR_FRAME_DECODER) != null) {
+      channel.close(); // Nope ¯\_(ツ)_/¯
+      return;
+    }
+
+    // Mark the player as connected by caching them in a map of verifying players
+    Sonar.get0().getAntiBot().addConnected(inetAddress);
+
+    // Replace normal encoder to allow custom packets (the encoder also takes care of framing)
+    final SonarPacketEncoder newEncoder = new SonarPacketEncoder(protocolVersion, true);
+    channel.pipeline().addLast(SONAR_PACKET_ENCODER, newEncoder);
+
+    // Replace normal decoder to allow custom packets
+    final SonarPacketDecoder newDecoder = new SonarPacketDecoder(protocolVersion, policy.getMaxTotalPacketsSent());
+    final MinecraftVarInt21FrameDecoder frameDecoder = new MinecraftVarInt21FrameDecoder(protocolVersion);
+    channel.pipeline().addFirst(SONAR_FRAME_DECODER, frameDecoder);
+    channel.pipeline().addLast(SONAR_PACKET_DECODER, newDecoder);
+
+    // Packets sent in response to incoming packets are flushed once the client's packets have all been read,
+    // so we only need a single syscall per read; packets sent outside a read are still flushed right away
+    channel.pipeline().addFirst(SONAR_FLUSH_CONSOLIDATION, new FlushConsolidationHandler());
+
+    // We're sending the LoginSuccess packet now
+    frameDecoder.updateRegistry(SonarPacketRegistry.LOGIN);
+    newDecoder.updateRegistry(SonarPacketRegistry.LOGIN);
+    newEncoder.updateRegistry(SonarPacketRegistry.LOGIN);
+    // Send LoginSuccess packet to make the client think they are joining the server
+    write(SonarPacketPreparer.loginSuccess);
+
+    // pre-1.20.2 clients do not have the configuration stage
+    if (protocolVersion.lessThan(ProtocolVersion.MINECRAFT_1_20_2)) {
+      frameDecoder.updateRegistry(SonarPacketRegistry.GAME);
+      newDecoder.updateRegistry(SonarPacketRegistry.GAME);
+      newEncoder.updateRegistry(SonarPacketRegistry.GAME);
+    }
+
+    // Listen for all incoming packets by setting the packet listener
+    newDecoder.setListener(new LoginHandler(this, policy));
+
+    // Make sure to catch all exceptions during the verification
+    channel.pipeline().addLast(SONAR_TAIL_EXCEPTIONS, TailExceptionsHandler.INSTANCE);
   }
 
   @Override
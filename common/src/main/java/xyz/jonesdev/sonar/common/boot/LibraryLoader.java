@@ -43,13 +43,6 @@ void loadLibraries(final @NotNull LibraryManager libraryManager, final @NotNull
         .version("2.11.0")
         .relocate("com{}google{}gson", "xyz{}jonesdev{}sonar{}libs{}gson")
         .build(),
-      // Caffeine
-      Library.builder()
-        .groupId("com{}github{}ben-manes{}caffeine")
-        .artifactId("caffeine")
-        .version("3.2.3")
-        .relocate("com{}github{}benmanes{}caffeine", "xyz{}jonesdev{}sonar{}libs{}caffeine")
-        .build(),
       // ORMLite
       Library.builder()
         .groupId("com{}j256{}ormlite")
@@ -18,8 +18,6 @@
 package xyz.jonesdev.sonar.common.boot;
 
 import com.alessiodp.libby.LibraryManager;
-import com.github.benmanes.caffeine.cache.Caffeine;
-import com.github.benmanes.caffeine.cache.Ticker;
 import com.j256.ormlite.logger.Level;
 import com.j256.ormlite.logger.Logger;
 import lombok.Getter;
@@ -29,6 +27,7 @@
 import xyz.jonesdev.sonar.api.Sonar;
 import xyz.jonesdev.sonar.api.SonarPlatform;
 import xyz.jonesdev.sonar.api.SonarSupplier;
+import xyz.jonesdev.sonar.api.antibot.Blacklist;
 import xyz.jonesdev.sonar.api.command.subcommand.SubcommandRegistry;
 import xyz.jonesdev.sonar.api.config.SonarConfiguration;
 import xyz.jonesdev.sonar.api.database.controller.VerifiedPlayerController;
@@ -37,15 +36,16 @@
 import xyz.jonesdev.sonar.api.statistics.SonarStatistics;
 import xyz.jonesdev.sonar.api.timer.SystemTimer;
 import xyz.jonesdev.sonar.common.protocol.SonarPacketPreparer;
-import xyz.jonesdev.sonar.common.ratelimit.CaffeineCacheRatelimiter;
+import xyz.jonesdev.sonar.common.ratelimit.AddressTableRatelimiter;
 import xyz.jonesdev.sonar.common.ratelimit.NoopCacheRatelimiter;
 import xyz.jonesdev.sonar.common.service.ScheduledServiceManager;
 import xyz.jonesdev.sonar.common.statistics.GlobalSonarStatistics;
 import xyz.jonesdev.sonar.common.subcommand.*;
 import xyz.jonesdev.sonar.common.util.ProtocolUtil;
+import xyz.jonesdev.sonar.common.verification.VerificationPolicy;
 
 import java.io.File;
-import java.time.Duration;
+import java.util.concurrent.TimeUnit;
 
 @Getter
 @RequiredArgsConstructor
@@ -135,40 +135,42 @@ public final void reload() {
       getLogger().warn("Reloading after changing the database type is not recommended as it may cause data loss.");
     }
 
+    // Compile the settings used during the verification
+    VerificationPolicy.update(getConfig());
+
     // Prepare cached packets
     getLogger().info("Taking cached snapshots of all packets...");
     SonarPacketPreparer.prepare();
 
     // Update ratelimiter cache
     getAntiBot().setRatelimiter(getConfig().getVerification().getReconnectDelay() > 0L
-      ? new CaffeineCacheRatelimiter(Duration.ofMillis(getConfig().getVerification().getReconnectDelay()))
+      ? new AddressTableRatelimiter(getConfig().getVerification().getReconnectDelay(), TimeUnit.MILLISECONDS,
+        getConfig().getVerification().isReconnectBackoff())
       : NoopCacheRatelimiter.INSTANCE);
 
     // Update blacklist cache
     final long blacklistTime = getConfig().getVerification().getBlacklistTime();
     final boolean blacklistExists = getAntiBot().getBlacklist() != null;
     // Make sure the blacklist is only set when we need it to prevent data loss
-    if (!blacklistExists // Make sure we create a new cache if it doesn't exist yet
-      || getAntiBot().getBlacklistTime() != blacklistTime) {
-      // Create a new cache with the configured blacklist time
-      getAntiBot().setBlacklist(Caffeine.newBuilder()
-        .expireAfterWrite(Duration.ofMillis(getConfig().getVerification().getBlacklistTime()))
-        .ticker(Ticker.systemTicker())
-        .build());
-      // Store the new blacklist time, so we don't have to reset the blacklist every reload
-      getAntiBot().setBlacklistTime(blacklistTime);
+    if (!blacklistExists // Make sure we create a new blacklist if it doesn't exist yet
+      || getAntiBot().getBlacklist().getExpiry() != blacklistTime) {
+      // Create a new blacklist with the configured blacklist time
+      getAntiBot().setBlacklist(new Blacklist(blacklistTime, TimeUnit.MILLISECONDS));
       // Warn the user about changing the expiry of the blacklist values
       if (blacklistExists) {
         getLogger().warn("The blacklist has been reset as the duration of entries has changed.");
       }
     }
 
-    // Reinitialize database controller
-    if (verifiedPlayerController != null) {
-      // Close the old connection first
-      verifiedPlayerController.close();
+    // Only reinitialize the database controller if the connection has to be reestablished;
+    // otherwise, the verified players stay in memory and the new limits are applied in place
+    if (verifiedPlayerController == null || !verifiedPlayerController.reload()) {
+      if (verifiedPlayerController != null) {
+        // Close the old connection first
+        verifiedPlayerController.close();
+      }
+      verifiedPlayerController = new VerifiedPlayerController(libraryManager);
     }
-    verifiedPlayerController = new VerifiedPlayerController(libraryManager);
   }
 
   public final void shutdown() {
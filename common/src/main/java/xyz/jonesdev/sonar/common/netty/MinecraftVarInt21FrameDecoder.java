@@ -22,14 +22,27 @@
 import io.netty.handler.codec.ByteToMessageDecoder;
 import io.netty.handler.codec.DecoderException;
 import io.netty.util.ByteProcessor;
+import lombok.RequiredArgsConstructor;
 import org.jetbrains.annotations.NotNull;
+import xyz.jonesdev.sonar.api.antibot.protocol.ProtocolVersion;
+import xyz.jonesdev.sonar.common.protocol.SonarPacketRegistry;
 import xyz.jonesdev.sonar.common.util.ProtocolUtil;
 import xyz.jonesdev.sonar.common.util.exception.QuietDecoderException;
 
 import java.util.List;
 
 // https://github.com/PaperMC/Velocity/blob/dev/3.0.0/proxy/src/main/java/com/velocitypowered/proxy/protocol/netty/MinecraftVarintFrameDecoder.java
+@RequiredArgsConstructor
 public final class MinecraftVarInt21FrameDecoder extends ByteToMessageDecoder {
+  // Largest length that fits into a 21-bit VarInt
+  public static final int MAX_FRAME_LENGTH = (1 << 21) - 1;
+
+  private final ProtocolVersion protocolVersion;
+  private int maxFrameLength = MAX_FRAME_LENGTH;
+
+  public void updateRegistry(final @NotNull SonarPacketRegistry registry) {
+    this.maxFrameLength = registry.getMaxFrameLength(protocolVersion);
+  }
 
   @Override
   protected void decode(final @NotNull ChannelHandlerContext ctx,
@@ -40,28 +53,41 @@ protected void decode(final @NotNull ChannelHandlerContext ctx,
       return;
     }
 
-    // Skip any runs of 0x00 we might find
-    final int packetStart = byteBuf.forEachByte(ByteProcessor.FIND_NON_NUL);
-    if (packetStart == -1) {
-      byteBuf.clear();
-      return;
-    }
-    byteBuf.readerIndex(packetStart);
+    // Decode all complete frames at once instead of being called again for every single one of them
+    while (byteBuf.isReadable()) {
+      // Skip any runs of 0x00 we might find
+      final int packetStart = byteBuf.forEachByte(ByteProcessor.FIND_NON_NUL);
+      if (packetStart == -1) {
+        byteBuf.clear();
+        return;
+      }
+      byteBuf.readerIndex(packetStart);
 
-    // Try to read the length of the packet
-    byteBuf.markReaderIndex();
-    final int preIndex = byteBuf.readerIndex();
-    final int length = readRawVarInt21(byteBuf);
-    if (preIndex == byteBuf.readerIndex()) {
-      return;
-    }
-    if (length <= 0) {
-      throw ProtocolUtil.DEBUG ? new DecoderException("Bad VarInt length: " + length) : QuietDecoderException.INSTANCE;
-    }
+      // Try to read the length of the packet
+      final int preIndex = byteBuf.readerIndex();
+      final int length = readRawVarInt21(byteBuf);
+      if (preIndex == byteBuf.readerIndex()) {
+        return;
+      }
+      if (length <= 0) {
+        throw ProtocolUtil.DEBUG ? new DecoderException("Bad VarInt length: " + length) : QuietDecoderException.INSTANCE;
+      }
 
-    if (byteBuf.readableBytes() < length) {
-      byteBuf.resetReaderIndex();
-    } else {
+      // Don't wait for the rest of a frame that is too large for the current state to arrive
+      if (length > maxFrameLength) {
+        // The frames decoded before this one might change the state, so check again once they have been handled
+        if (!out.isEmpty()) {
+          byteBuf.readerIndex(preIndex);
+          return;
+        }
+        throw ProtocolUtil.DEBUG ? new DecoderException("Frame too large: " + length + " max: " + maxFrameLength)
+          : QuietDecoderException.INSTANCE;
+      }
+
+      if (byteBuf.readableBytes() < length) {
+        byteBuf.readerIndex(preIndex);
+        return;
+      }
       out.add(byteBuf.readRetainedSlice(length));
     }
   }
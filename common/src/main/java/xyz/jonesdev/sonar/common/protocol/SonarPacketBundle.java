@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2026 Sonar Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xyz.jonesdev.sonar.common.protocol;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.util.collection.IntObjectHashMap;
+import io.netty.util.collection.IntObjectMap;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import xyz.jonesdev.sonar.api.Sonar;
+import xyz.jonesdev.sonar.api.antibot.protocol.ProtocolVersion;
+import xyz.jonesdev.sonar.common.util.ProtocolUtil;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Multiple packets that are always sent together, encoded and framed into one contiguous buffer.
+ * Bundles can only be written by encoders that take care of framing.
+ */
+public final class SonarPacketBundle {
+  private static final ProtocolVersion[] VERSIONS = ProtocolVersion.values();
+
+  private final SonarPacketRegistry registry;
+  private final ByteBuf[] buffers = new ByteBuf[VERSIONS.length];
+
+  public SonarPacketBundle(final @NotNull SonarPacketRegistry registry,
+                           final @NotNull Function<ProtocolVersion, List<SonarPacket>> packets) {
+    this.registry = registry;
+
+    final IntObjectMap<ByteBuf> hashedData = new IntObjectHashMap<>(VERSIONS.length);
+
+    for (final ProtocolVersion protocolVersion : VERSIONS) {
+      if (protocolVersion.isUnknown()) {
+        continue;
+      }
+
+      final List<SonarPacket> bundledPackets = packets.apply(protocolVersion);
+      // This bundle is not used for this protocol version
+      if (bundledPackets == null || bundledPackets.isEmpty()) {
+        continue;
+      }
+
+      final ByteBuf byteBuf = Unpooled.buffer();
+      try {
+        try {
+          for (final SonarPacket packet : bundledPackets) {
+            writeFramed(byteBuf, packet, protocolVersion);
+          }
+        } catch (Throwable throwable) {
+          Sonar.get0().getLogger().error("Could not encode packet bundle for version {}: {}",
+            protocolVersion, throwable);
+          continue;
+        }
+
+        // Protocol versions with identical bundles share the same buffer
+        final int hash = byteBuf.hashCode();
+        ByteBuf bundle = hashedData.get(hash);
+        if (bundle == null) {
+          // The memory of a wrapped JDK buffer is freed by the garbage collector once the bundle is no longer used
+          bundle = Unpooled.unreleasableBuffer(Unpooled.wrappedBuffer(
+            ByteBuffer.allocateDirect(byteBuf.readableBytes())).clear().writeBytes(byteBuf));
+          hashedData.put(hash, bundle);
+        }
+        buffers[protocolVersion.ordinal()] = bundle;
+      } finally {
+        // Make sure to release the buffer to avoid memory leaks
+        byteBuf.release();
+      }
+    }
+  }
+
+  private void writeFramed(final @NotNull ByteBuf byteBuf,
+                           final @NotNull SonarPacket packet,
+                           final @NotNull ProtocolVersion protocolVersion) throws Exception {
+    // Snapshots have already been framed, so we can simply copy them
+    if (packet instanceof SonarPacketSnapshot) {
+      final ByteBuf framed = ((SonarPacketSnapshot) packet).getBuffer(registry, protocolVersion, true);
+      if (framed == null) {
+        throw new IllegalStateException("Could not find " + packet + " for " + registry);
+      }
+      byteBuf.writeBytes(framed, framed.readerIndex(), framed.readableBytes());
+      return;
+    }
+
+    final int packetId = registry.getProtocolRegistry(SonarPacketRegistry.Direction.CLIENTBOUND, protocolVersion)
+      .getPacketId(packet.getClass());
+    final ByteBuf payload = Unpooled.buffer();
+    try {
+      ProtocolUtil.writeVarInt(payload, packetId);
+      packet.encode(payload, protocolVersion);
+      ProtocolUtil.writeVarInt(byteBuf, payload.readableBytes());
+      byteBuf.writeBytes(payload);
+    } finally {
+      payload.release();
+    }
+  }
+
+  /**
+   * @return Shared buffer containing all framed packets or null if the bundle cannot be sent.
+   * The buffer must be duplicated before it is written, so the indices of the original buffer are not modified.
+   */
+  public @Nullable ByteBuf getBuffer(final @NotNull SonarPacketRegistry registry,
+                                     final @NotNull ProtocolVersion protocolVersion) {
+    return this.registry == registry ? buffers[protocolVersion.ordinal()] : null;
+  }
+}
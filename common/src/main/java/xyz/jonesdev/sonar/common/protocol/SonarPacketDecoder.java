@@ -22,26 +22,38 @@
 import io.netty.channel.ChannelInboundHandlerAdapter;
 import io.netty.handler.codec.DecoderException;
 import lombok.RequiredArgsConstructor;
-import lombok.Setter;
 import org.jetbrains.annotations.NotNull;
 import xyz.jonesdev.sonar.api.antibot.protocol.ProtocolVersion;
 import xyz.jonesdev.sonar.common.util.ProtocolUtil;
 import xyz.jonesdev.sonar.common.util.exception.QuietDecoderException;
 
-import static xyz.jonesdev.sonar.common.protocol.SonarPacketPreparer.maxTotalPacketsSent;
+import java.util.concurrent.TimeUnit;
 
 @RequiredArgsConstructor
 public final class SonarPacketDecoder extends ChannelInboundHandlerAdapter {
+  private static final long SECOND_NANOS = TimeUnit.SECONDS.toNanos(1L);
+
   private final ProtocolVersion protocolVersion;
+  private final int maxTotalPacketsSent;
   private SonarPacketRegistry.ProtocolRegistry registry;
-  @Setter
   private SonarPacketListener listener;
   private int totalPacketsSent;
+  // Packet rate limit of the current listener (generic cell rate algorithm); disabled if the interval is 0
+  private long packetInterval, burstTolerance, nextPacketTime;
 
   public void updateRegistry(final @NotNull SonarPacketRegistry registry) {
     this.registry = registry.getProtocolRegistry(SonarPacketRegistry.Direction.SERVERBOUND, protocolVersion);
   }
 
+  public void setListener(final @NotNull SonarPacketListener listener) {
+    this.listener = listener;
+    final int maxPacketsPerSecond = listener.getMaxPacketsPerSecond();
+    packetInterval = maxPacketsPerSecond > 0 ? SECOND_NANOS / maxPacketsPerSecond : 0L;
+    burstTolerance = packetInterval * listener.getMaxPacketBurst();
+    // Every stage of the verification starts with the full burst available
+    nextPacketTime = System.nanoTime();
+  }
+
   @Override
   public void channelRead(final @NotNull ChannelHandlerContext ctx, final Object msg) throws Exception {
     if (msg instanceof ByteBuf) {
@@ -60,6 +72,17 @@ public void channelRead(final @NotNull ChannelHandlerContext ctx, final Object m
           throw ProtocolUtil.DEBUG ? new DecoderException("Sent too many packets") : QuietDecoderException.INSTANCE;
         }
 
+        // Don't allow the player to send all of these packets at once either
+        if (packetInterval > 0L) {
+          final long now = System.nanoTime();
+          final long next = Math.max(nextPacketTime, now);
+          if (next - now > burstTolerance) {
+            throw ProtocolUtil.DEBUG ? new DecoderException("Sent packets too quickly")
+              : QuietDecoderException.INSTANCE;
+          }
+          nextPacketTime = next + packetInterval;
+        }
+
         // Read the packet ID and then create the packet from it
         final int packetId = ProtocolUtil.readVarInt(byteBuf);
         final SonarPacket packet = registry.createPacket(packetId);
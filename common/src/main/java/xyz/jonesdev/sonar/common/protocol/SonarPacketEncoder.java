@@ -19,16 +19,25 @@
 
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.EncoderException;
 import io.netty.handler.codec.MessageToByteEncoder;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import org.jetbrains.annotations.NotNull;
 import xyz.jonesdev.sonar.api.antibot.protocol.ProtocolVersion;
 import xyz.jonesdev.sonar.common.util.ProtocolUtil;
+import xyz.jonesdev.sonar.common.util.exception.QuietDecoderException;
 
 @RequiredArgsConstructor
 public final class SonarPacketEncoder extends MessageToByteEncoder<SonarPacket> {
+  // The length of a frame is encoded as a VarInt that can be up to 3 bytes long
+  private static final int MAX_LENGTH_BYTES = 3;
+  private static final int MAX_FRAME_LENGTH = (1 << (MAX_LENGTH_BYTES * 7)) - 1;
+
   private final ProtocolVersion protocolVersion;
+  // Whether this encoder should also prefix each packet with its length
+  private final boolean framing;
   @Getter
   private SonarPacketRegistry packetRegistry;
   private SonarPacketRegistry.ProtocolRegistry protocolRegistry;
@@ -38,6 +47,27 @@ public void updateRegistry(final @NotNull SonarPacketRegistry packetRegistry) {
     this.protocolRegistry = packetRegistry.getProtocolRegistry(SonarPacketRegistry.Direction.CLIENTBOUND, protocolVersion);
   }
 
+  @Override
+  public void write(final ChannelHandlerContext ctx, final Object msg, final ChannelPromise promise) throws Exception {
+    if (msg instanceof SonarPacketSnapshot) {
+      final ByteBuf byteBuf = ((SonarPacketSnapshot) msg).getBuffer(packetRegistry, protocolVersion, framing);
+      // Snapshots are already encoded, so we can write them without copying anything
+      if (byteBuf != null) {
+        ctx.write(byteBuf.retainedDuplicate(), promise);
+        return;
+      }
+    } else if (msg instanceof SonarPacketBundle) {
+      final ByteBuf byteBuf = framing ? ((SonarPacketBundle) msg).getBuffer(packetRegistry, protocolVersion) : null;
+      if (byteBuf == null) {
+        throw ProtocolUtil.DEBUG ? new EncoderException("Unable to find packet bundle") : QuietDecoderException.INSTANCE;
+      }
+      // Bundles contain multiple packets, but they are still only a single write
+      ctx.write(byteBuf.retainedDuplicate(), promise);
+      return;
+    }
+    super.write(ctx, msg, promise);
+  }
+
   @Override
   protected void encode(final ChannelHandlerContext ctx,
                         final @NotNull SonarPacket packet,
@@ -45,7 +75,30 @@ protected void encode(final ChannelHandlerContext ctx,
     final Class<? extends SonarPacket> originalPacket = packet instanceof SonarPacketSnapshot
       ? ((SonarPacketSnapshot) packet).getOriginalPacketClass() : packet.getClass();
     final int packetId = protocolRegistry.getPacketId(originalPacket);
+
+    if (!framing) {
+      ProtocolUtil.writeVarInt(out, packetId);
+      packet.encode(out, protocolVersion);
+      return;
+    }
+
+    // Reserve enough space for the length, so we don't have to allocate a separate buffer for it
+    final int lengthIndex = out.writerIndex();
+    out.writerIndex(lengthIndex + MAX_LENGTH_BYTES);
     ProtocolUtil.writeVarInt(out, packetId);
     packet.encode(out, protocolVersion);
+
+    final int length = out.writerIndex() - lengthIndex - MAX_LENGTH_BYTES;
+    if (length > MAX_FRAME_LENGTH) {
+      throw ProtocolUtil.DEBUG ? new EncoderException("Packet too large: " + length) : QuietDecoderException.INSTANCE;
+    }
+
+    // Write the length right in front of the packet and skip the unused bytes
+    final int frameIndex = lengthIndex + MAX_LENGTH_BYTES - ProtocolUtil.varIntBytes(length);
+    final int writerIndex = out.writerIndex();
+    out.writerIndex(frameIndex);
+    ProtocolUtil.writeVarInt(out, length);
+    out.writerIndex(writerIndex);
+    out.readerIndex(frameIndex);
   }
 }
@@ -28,4 +28,19 @@ public interface SonarPacketListener {
    * @param packet Packet to handle
    */
   void handle(final @NotNull SonarPacket packet);
+
+  /**
+   * @return the number of packets per second the client is allowed to send while this listener is active
+   * (0 = no limit)
+   */
+  default int getMaxPacketsPerSecond() {
+    return 0;
+  }
+
+  /**
+   * @return the number of packets the client is allowed to send at once on top of the rate limit
+   */
+  default int getMaxPacketBurst() {
+    return 0;
+  }
 }
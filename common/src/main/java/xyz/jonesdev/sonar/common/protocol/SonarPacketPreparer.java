@@ -37,15 +37,16 @@
 import xyz.jonesdev.sonar.common.protocol.dimension.DimensionType;
 import xyz.jonesdev.sonar.common.protocol.entity.EntityType;
 import xyz.jonesdev.sonar.common.protocol.item.ItemType;
+import xyz.jonesdev.sonar.common.protocol.packets.configuration.FinishConfigurationPacket;
 import xyz.jonesdev.sonar.common.protocol.packets.configuration.RegistryDataPacket;
+import xyz.jonesdev.sonar.common.protocol.packets.configuration.SelectKnownPacksPacket;
 import xyz.jonesdev.sonar.common.protocol.packets.configuration.UpdateTagsPacket;
 import xyz.jonesdev.sonar.common.protocol.packets.login.LoginSuccessPacket;
 import xyz.jonesdev.sonar.common.protocol.packets.play.*;
 import xyz.jonesdev.sonar.common.util.ComponentHolder;
 
 import java.io.File;
-import java.util.Random;
-import java.util.UUID;
+import java.util.*;
 
 @UtilityClass
 public class SonarPacketPreparer {
@@ -106,8 +107,22 @@ public class SonarPacketPreparer {
   public final SonarPacket[] REGISTRY_SYNC_1_21_11 = RegistryDataPacket.of(DimensionRegistry.CODEC_1_21_11);
   public final SonarPacket[] REGISTRY_SYNC_26_1 = RegistryDataPacket.of(DimensionRegistry.CODEC_26_1);
   public final SonarPacket[] REGISTRY_SYNC_26_2 = RegistryDataPacket.of(DimensionRegistry.CODEC_26_2);
+  // Registry data without the data the client already knows from the vanilla core pack (except for dimension types)
+  public final SonarPacket[] KNOWN_REGISTRY_SYNC_1_20_5 = RegistryDataPacket.of(DimensionRegistry.CODEC_1_20_5, false);
+  public final SonarPacket[] KNOWN_REGISTRY_SYNC_1_21 = RegistryDataPacket.of(DimensionRegistry.CODEC_1_21, false);
+  public final SonarPacket[] KNOWN_REGISTRY_SYNC_1_21_2 = RegistryDataPacket.of(DimensionRegistry.CODEC_1_21_2, false);
+  public final SonarPacket[] KNOWN_REGISTRY_SYNC_1_21_4 = RegistryDataPacket.of(DimensionRegistry.CODEC_1_21_4, false);
+  public final SonarPacket[] KNOWN_REGISTRY_SYNC_1_21_5 = RegistryDataPacket.of(DimensionRegistry.CODEC_1_21_5, false);
+  public final SonarPacket[] KNOWN_REGISTRY_SYNC_1_21_11 = RegistryDataPacket.of(DimensionRegistry.CODEC_1_21_11, false);
+  public final SonarPacket[] KNOWN_REGISTRY_SYNC_26_1 = RegistryDataPacket.of(DimensionRegistry.CODEC_26_1, false);
+  public final SonarPacket[] KNOWN_REGISTRY_SYNC_26_2 = RegistryDataPacket.of(DimensionRegistry.CODEC_26_2, false);
+  public final SonarPacket SELECT_KNOWN_PACKS = new SonarPacketSnapshot(new SelectKnownPacksPacket());
   public final SonarPacket TAGS_UPDATE_26_1 = UpdateTagsPacket.of(DimensionRegistry.TAGS_26_1);
   public final SonarPacket TAGS_UPDATE_26_2 = UpdateTagsPacket.of(DimensionRegistry.TAGS_26_2);
+  public final SonarPacketBundle CONFIGURATION_BUNDLE = new SonarPacketBundle(
+    SonarPacketRegistry.CONFIG, protocolVersion -> getConfigurationPackets(protocolVersion, false));
+  public final SonarPacketBundle KNOWN_PACKS_CONFIGURATION_BUNDLE = new SonarPacketBundle(
+    SonarPacketRegistry.CONFIG, protocolVersion -> getConfigurationPackets(protocolVersion, true));
   public final SonarPacket START_WRITING_CHUNKS = new GameEventPacket(13, 0);
   public final static SonarPacket INVALID_HELD_ITEM_SLOT = new SetHeldItemPacket(-1);
   public final SonarPacket RANDOM_KEEP_ALIVE = new SonarPacketSnapshot(new KeepAlivePacket(RANDOM.nextInt()));
@@ -139,8 +154,10 @@ public class SonarPacketPreparer {
   public SonarPacket tooManyOnlinePerIP;
   public SonarPacket[] xpCountdown;
   public SonarPacket updateTime;
+  // One bundle for each platform block type and one without any platform
+  public SonarPacketBundle[] joinBundles;
 
-  public static int maxMovementTick, dynamicSpawnYPosition, maxTotalPacketsSent;
+  public static int maxMovementTick, dynamicSpawnYPosition;
 
   public void prepare() {
     // Preload the packet registry to avoid CPU/RAM issues on 1st connection
@@ -224,6 +241,14 @@ public void prepare() {
       updateTime = null;
     }
 
+    // Prepare all packets that are needed for joining the world
+    joinBundles = new SonarPacketBundle[BLOCKS_PACKETS.length + 1];
+    for (int i = 0; i < joinBundles.length; i++) {
+      final int blockIndex = i;
+      joinBundles[i] = new SonarPacketBundle(SonarPacketRegistry.GAME,
+        protocolVersion -> getJoinPackets(protocolVersion, blockIndex));
+    }
+
     // If the welcome message is empty, we don't need to send a message to the player
     final String welcome = Sonar.get0().getConfig().getMessagesConfig().getString("verification.welcome");
     if (welcome.isEmpty()) {
@@ -287,12 +312,67 @@ public void prepare() {
       xpCountdown = null;
       Sonar.get0().getAntiBot().setCaptchaGenerator(null);
     }
+  }
 
-    maxTotalPacketsSent = maxMovementTick + 2
-      + (xpCountdown == null ? 0 : xpCountdown.length) * 20 + 5
-      + Sonar.get0().getConfig().getVerification().getVehicle().getMinimumPackets() * 4
-      + Sonar.get0().getConfig().getVerification().getMap().getMaxTries()
-      + Sonar.get0().getConfig().getVerification().getMaxPacketCount();
+  private static @NotNull List<SonarPacket> getJoinPackets(final @NotNull ProtocolVersion protocolVersion,
+                                                          final int blockIndex) {
+    final List<SonarPacket> packets = new ArrayList<>();
+    // First, write the JoinGame packet
+    packets.add(joinGame);
+    // Then, write the ClientAbilities packet
+    // This is only necessary if the player is in creative mode
+    if (Sonar.get0().getConfig().getVerification().getGamemode() == SonarConfiguration.Verification.Gamemode.CREATIVE) {
+      packets.add(DEFAULT_ABILITIES);
+    }
+    // Write the DefaultSpawnPosition packet
+    if (protocolVersion.greaterThanOrEquals(ProtocolVersion.MINECRAFT_1_19_3)) {
+      packets.add(defaultSpawnPosition);
+    }
+    // Teleport the player to the position where we're starting to check them
+    if (protocolVersion.greaterThanOrEquals(ProtocolVersion.MINECRAFT_1_8)) {
+      packets.add(spawnPosition);
+      packets.add(fallStartPosition);
+    } else {
+      // 1.7.2-1.7.10 clients do not have relative teleports
+      packets.add(fallStartPositionLegacy);
+    }
+    // 1.20.3+ introduced game events
+    // Make sure the client knows that we're sending chunks next
+    if (protocolVersion.greaterThanOrEquals(ProtocolVersion.MINECRAFT_1_20_3)) {
+      packets.add(START_WRITING_CHUNKS);
+      packets.addAll(Arrays.asList(EMPTY_CHUNK_DATA));
+    } else {
+      packets.add(EMPTY_CHUNK_DATA[0]);
+    }
+    // Spawn the invisible platform below the player
+    if (blockIndex < BLOCKS_PACKETS.length) {
+      packets.add(BLOCKS_PACKETS[blockIndex]);
+    }
+    // Update the world time, if necessary
+    if (updateTime != null) {
+      packets.add(updateTime);
+    }
+    return packets;
+  }
+
+  private static @Nullable List<SonarPacket> getConfigurationPackets(final @NotNull ProtocolVersion protocolVersion,
+                                                                     final boolean knownPacks) {
+    // pre-1.20.2 clients do not have the configuration stage
+    // and pre-1.20.5 clients do not support known packs
+    if (protocolVersion.lessThan(knownPacks ? ProtocolVersion.MINECRAFT_1_20_5 : ProtocolVersion.MINECRAFT_1_20_2)) {
+      return null;
+    }
+    // Write the RegistrySync packets
+    final List<SonarPacket> packets = new ArrayList<>(Arrays.asList(knownPacks
+      ? getKnownRegistryPackets(protocolVersion) : getRegistryPackets(protocolVersion)));
+    // Write the tags because Mojang decided to screw everyone over in 26.1.
+    final SonarPacket tags = getTagsPacket(protocolVersion);
+    if (tags != null) {
+      packets.add(tags);
+    }
+    // Finally, write the FinishConfiguration packet
+    packets.add(FinishConfigurationPacket.INSTANCE);
+    return packets;
   }
 
   public static @Nullable SonarPacket getTagsPacket(final @NotNull ProtocolVersion protocolVersion) {
@@ -304,6 +384,25 @@ public void prepare() {
     return null; // apparently doesn't crash the client; we're safe... for now.
   }
 
+  public static SonarPacket[] getKnownRegistryPackets(final @NotNull ProtocolVersion protocolVersion) {
+    if (protocolVersion.greaterThanOrEquals(ProtocolVersion.MINECRAFT_26_2)) {
+      return KNOWN_REGISTRY_SYNC_26_2;
+    } else if (protocolVersion.greaterThanOrEquals(ProtocolVersion.MINECRAFT_26_1)) {
+      return KNOWN_REGISTRY_SYNC_26_1;
+    } else if (protocolVersion.greaterThanOrEquals(ProtocolVersion.MINECRAFT_1_21_11)) {
+      return KNOWN_REGISTRY_SYNC_1_21_11;
+    } else if (protocolVersion.greaterThanOrEquals(ProtocolVersion.MINECRAFT_1_21_5)) {
+      return KNOWN_REGISTRY_SYNC_1_21_5;
+    } else if (protocolVersion.greaterThanOrEquals(ProtocolVersion.MINECRAFT_1_21_4)) {
+      return KNOWN_REGISTRY_SYNC_1_21_4;
+    } else if (protocolVersion.greaterThanOrEquals(ProtocolVersion.MINECRAFT_1_21_2)) {
+      return KNOWN_REGISTRY_SYNC_1_21_2;
+    } else if (protocolVersion.greaterThanOrEquals(ProtocolVersion.MINECRAFT_1_21)) {
+      return KNOWN_REGISTRY_SYNC_1_21;
+    }
+    return KNOWN_REGISTRY_SYNC_1_20_5;
+  }
+
   public static SonarPacket[] getRegistryPackets(final @NotNull ProtocolVersion protocolVersion) {
     if (protocolVersion.greaterThanOrEquals(ProtocolVersion.MINECRAFT_26_2)) {
       return REGISTRY_SYNC_26_2;
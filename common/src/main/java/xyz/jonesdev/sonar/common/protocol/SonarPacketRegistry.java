@@ -24,8 +24,10 @@
 import lombok.ToString;
 import org.jetbrains.annotations.NotNull;
 import xyz.jonesdev.sonar.api.antibot.protocol.ProtocolVersion;
+import xyz.jonesdev.sonar.common.netty.MinecraftVarInt21FrameDecoder;
 import xyz.jonesdev.sonar.common.protocol.packets.configuration.FinishConfigurationPacket;
 import xyz.jonesdev.sonar.common.protocol.packets.configuration.RegistryDataPacket;
+import xyz.jonesdev.sonar.common.protocol.packets.configuration.SelectKnownPacksPacket;
 import xyz.jonesdev.sonar.common.protocol.packets.configuration.UpdateTagsPacket;
 import xyz.jonesdev.sonar.common.protocol.packets.handshake.HandshakePacket;
 import xyz.jonesdev.sonar.common.protocol.packets.login.LoginAcknowledgedPacket;
@@ -43,13 +45,15 @@
 
 // https://github.com/PaperMC/Velocity/blob/dev/3.0.0/proxy/src/main/java/com/velocitypowered/proxy/protocol/StateRegistry.java
 public enum SonarPacketRegistry {
-  HANDSHAKE {
+  // The handshake may contain forwarded player data, so only limit it to what the frame decoder allows
+  HANDSHAKE(MinecraftVarInt21FrameDecoder.MAX_FRAME_LENGTH) {
     {
       serverbound.register(HandshakePacket.class, HandshakePacket::new,
         map(0x00, MINECRAFT_1_7_2, false));
     }
   },
-  LOGIN {
+  // Only LoginAcknowledged is expected, since Sonar never requests any plugin messages or cookies
+  LOGIN(2048) {
     {
       clientbound.register(DisconnectPacket.class, DisconnectPacket::new,
         map(0x00, MINECRAFT_1_7_2, true));
@@ -62,7 +66,8 @@ public enum SonarPacketRegistry {
         map(0x03, MINECRAFT_1_20_2, false));
     }
   },
-  CONFIG {
+  // Plugin messages are the largest packets vanilla clients send while being verified
+  CONFIG(Short.MAX_VALUE) {
     {
       clientbound.register(DisconnectPacket.class, DisconnectPacket::new,
         map(0x01, MINECRAFT_1_20_2, true),
@@ -78,6 +83,8 @@ public enum SonarPacketRegistry {
         map(0x07, MINECRAFT_1_20_5, true));
       clientbound.register(UpdateTagsPacket.class, UpdateTagsPacket::new,
         map(0x0D, MINECRAFT_1_20_5, true));
+      clientbound.register(SelectKnownPacksPacket.class, SelectKnownPacksPacket::new,
+        map(0x0E, MINECRAFT_1_20_5, true));
 
       serverbound.register(ClientInformationPacket.class, ClientInformationPacket::new,
         map(0x00, MINECRAFT_1_20_2, false));
@@ -90,9 +97,12 @@ public enum SonarPacketRegistry {
       serverbound.register(KeepAlivePacket.class, KeepAlivePacket::new,
         map(0x03, MINECRAFT_1_20_2, false),
         map(0x04, MINECRAFT_1_20_5, false));
+      serverbound.register(SelectKnownPacksPacket.class, SelectKnownPacksPacket::new,
+        map(0x07, MINECRAFT_1_20_5, false));
     }
   },
-  GAME {
+  // Plugin messages are also the largest packets expected while playing
+  GAME(Short.MAX_VALUE) {
     {
       // minecraft:login
       clientbound.register(JoinGamePacket.class, JoinGamePacket::new,
@@ -738,8 +748,17 @@ public enum SonarPacketRegistry {
     }
   };
 
+  // Packet IDs are VarInts
+  private static final int MAX_PACKET_ID_LENGTH = 5;
+
   protected final PacketRegistry clientbound = new PacketRegistry();
   protected final PacketRegistry serverbound = new PacketRegistry();
+  // Maximum length of packets that don't specify their own limit, including packets Sonar doesn't decode
+  private final int maxUnknownPacketLength;
+
+  SonarPacketRegistry(final int maxUnknownPacketLength) {
+    this.maxUnknownPacketLength = maxUnknownPacketLength;
+  }
 
   public enum Direction {
     SERVERBOUND,
@@ -751,6 +770,15 @@ public SonarPacketRegistry.ProtocolRegistry getProtocolRegistry(final Direction
     return (direction == Direction.SERVERBOUND ? serverbound : clientbound).getProtocolRegistry(version);
   }
 
+  /**
+   * @return the length of the largest frame a client may legally send in this state
+   */
+  public int getMaxFrameLength(final @NotNull ProtocolVersion version) {
+    final int maxPacketLength = serverbound.getProtocolRegistry(version).getMaxPacketLength();
+    return Math.min(Math.max(maxUnknownPacketLength, maxPacketLength) + MAX_PACKET_ID_LENGTH,
+      MinecraftVarInt21FrameDecoder.MAX_FRAME_LENGTH);
+  }
+
   public static final class PacketRegistry {
     private final Map<ProtocolVersion, ProtocolRegistry> registries = new EnumMap<>(ProtocolVersion.class);
 
@@ -821,6 +849,8 @@ public static class ProtocolRegistry {
       new IntObjectHashMap<>(16, 0.5f);
     private final Map<Class<? extends SonarPacket>, Integer> packetClassToId =
       new HashMap<>(16, 0.5f);
+    // Lazily calculated, since packets can only be created once all of them have been registered
+    private int maxPacketLength = -1;
 
     public SonarPacket createPacket(final int packetId) {
       final var supplier = packetIdToSupplier.get(packetId);
@@ -828,12 +858,30 @@ public SonarPacket createPacket(final int packetId) {
     }
 
     public int getPacketId(final @NotNull Class<? extends SonarPacket> clazz) {
-      final int packetId = packetClassToId.getOrDefault(clazz, -1);
+      final int packetId = findPacketId(clazz);
       if (packetId == -1) {
         throw new IllegalArgumentException("Could not find packet ID for " + clazz.getSimpleName());
       }
       return packetId;
     }
+
+    public int findPacketId(final @NotNull Class<? extends SonarPacket> clazz) {
+      return packetClassToId.getOrDefault(clazz, -1);
+    }
+
+    /**
+     * @return the largest maximum length specified by any of the packets that can be decoded
+     */
+    int getMaxPacketLength() {
+      if (maxPacketLength == -1) {
+        int max = 0;
+        for (final Supplier<? extends SonarPacket> supplier : packetIdToSupplier.values()) {
+          max = Math.max(max, supplier.get().expectedMaxLength(protocolVersion));
+        }
+        maxPacketLength = max;
+      }
+      return maxPacketLength;
+    }
   }
 
   @ToString
@@ -22,28 +22,43 @@
 import io.netty.handler.codec.EncoderException;
 import io.netty.util.collection.IntObjectHashMap;
 import io.netty.util.collection.IntObjectMap;
+import io.netty.util.collection.LongObjectHashMap;
+import io.netty.util.collection.LongObjectMap;
 import lombok.Getter;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import xyz.jonesdev.sonar.api.Sonar;
 import xyz.jonesdev.sonar.api.antibot.protocol.ProtocolVersion;
 import xyz.jonesdev.sonar.common.util.ProtocolUtil;
 import xyz.jonesdev.sonar.common.util.exception.QuietDecoderException;
 
-import static xyz.jonesdev.sonar.api.antibot.protocol.ProtocolVersion.ID_TO_PROTOCOL_CONSTANT;
+import java.nio.ByteBuffer;
 
 // https://github.com/Nan1t/NanoLimbo/blob/main/src/main/java/ua/nanit/limbo/protocol/PacketSnapshot.java
 public final class SonarPacketSnapshot implements SonarPacket {
-  private final IntObjectMap<Integer> mappings = new IntObjectHashMap<>(ID_TO_PROTOCOL_CONSTANT.size());
-  private final IntObjectMap<byte[]> cachedBytes = new IntObjectHashMap<>(ID_TO_PROTOCOL_CONSTANT.size());
+  private static final SonarPacketRegistry[] REGISTRIES = SonarPacketRegistry.values();
+  private static final ProtocolVersion[] VERSIONS = ProtocolVersion.values();
+
+  // Fully framed packets (length, packet ID and payload) for every registry and protocol version
+  private final ByteBuf[][] framedBuffers = new ByteBuf[REGISTRIES.length][VERSIONS.length];
+  // The same packets without the length prefix, used if the frame encoder is not ours
+  private final ByteBuf[][] unframedBuffers = new ByteBuf[REGISTRIES.length][VERSIONS.length];
+  // The raw payloads, only used if the packet has to go through the regular encoder
+  private final ByteBuf[] payloads = new ByteBuf[VERSIONS.length];
   @Getter
   private final Class<? extends SonarPacket> originalPacketClass;
 
   public SonarPacketSnapshot(final @NotNull SonarPacket originalPacket) {
     this.originalPacketClass = originalPacket.getClass();
 
-    final IntObjectMap<Integer> hashedData = new IntObjectHashMap<>(ID_TO_PROTOCOL_CONSTANT.size());
+    final IntObjectMap<ProtocolVersion> hashedData = new IntObjectHashMap<>(VERSIONS.length);
+    final LongObjectMap<ByteBuf> framedData = new LongObjectHashMap<>();
+
+    for (final ProtocolVersion protocolVersion : VERSIONS) {
+      if (protocolVersion.isUnknown()) {
+        continue;
+      }
 
-    for (final ProtocolVersion protocolVersion : ID_TO_PROTOCOL_CONSTANT.values()) {
       // Allocate a buffer for each protocol version
       final ByteBuf byteBuf = Unpooled.buffer();
       try {
@@ -55,19 +70,38 @@ public SonarPacketSnapshot(final @NotNull SonarPacket originalPacket) {
           break;
         }
 
-        final Integer protocol = protocolVersion.getProtocol();
-        final Integer hash = byteBuf.hashCode();
-        final Integer hashed = hashedData.getOrDefault(hash, -1);
-
-        if (hashed != -1) {
-          mappings.put(protocol, hashed);
-        } else {
-          hashedData.put(hash, protocol);
-          mappings.put(protocol, protocol);
-          // Cache the raw bytes of the encoded packet
-          final byte[] bytes = new byte[byteBuf.readableBytes()];
-          byteBuf.readBytes(bytes);
-          cachedBytes.put(protocol, bytes);
+        final int hash = byteBuf.hashCode();
+        final ProtocolVersion hashed = hashedData.get(hash);
+        // Protocol versions with identical payloads share the same buffers
+        final ProtocolVersion canonical = hashed != null ? hashed : protocolVersion;
+        if (hashed == null) {
+          hashedData.put(hash, protocolVersion);
+        }
+
+        for (final SonarPacketRegistry registry : REGISTRIES) {
+          final int packetId = registry.getProtocolRegistry(SonarPacketRegistry.Direction.CLIENTBOUND, protocolVersion)
+            .findPacketId(originalPacketClass);
+          // This packet cannot be sent in this state
+          if (packetId == -1) {
+            continue;
+          }
+
+          final long key = (long) registry.ordinal() << 48 | (long) packetId << 16 | canonical.ordinal();
+          ByteBuf framed = framedData.get(key);
+          if (framed == null) {
+            framed = frame(packetId, byteBuf);
+            framedData.put(key, framed);
+          }
+
+          final int packetIdBytes = ProtocolUtil.varIntBytes(packetId);
+          final int length = packetIdBytes + byteBuf.readableBytes();
+          final ByteBuf unframed = framed.slice(ProtocolUtil.varIntBytes(length), length);
+          framedBuffers[registry.ordinal()][protocolVersion.ordinal()] = framed;
+          unframedBuffers[registry.ordinal()][protocolVersion.ordinal()] = unframed;
+
+          if (payloads[protocolVersion.ordinal()] == null) {
+            payloads[protocolVersion.ordinal()] = unframed.slice(packetIdBytes, byteBuf.readableBytes());
+          }
         }
       } finally {
         // Make sure to release the buffer to avoid memory leaks
@@ -76,17 +110,37 @@ public SonarPacketSnapshot(final @NotNull SonarPacket originalPacket) {
     }
   }
 
+  private static @NotNull ByteBuf frame(final int packetId, final @NotNull ByteBuf payload) {
+    final int length = ProtocolUtil.varIntBytes(packetId) + payload.readableBytes();
+    final int capacity = ProtocolUtil.varIntBytes(length) + length;
+    // The memory of a wrapped JDK buffer is freed by the garbage collector once the snapshot is no longer used.
+    // This is important, as snapshots are thrown away and recreated every time Sonar is reloaded.
+    final ByteBuf framed = Unpooled.wrappedBuffer(ByteBuffer.allocateDirect(capacity)).clear();
+    ProtocolUtil.writeVarInt(framed, length);
+    ProtocolUtil.writeVarInt(framed, packetId);
+    framed.writeBytes(payload, payload.readerIndex(), payload.readableBytes());
+    // Nobody is allowed to release the shared buffer
+    return Unpooled.unreleasableBuffer(framed);
+  }
+
+  /**
+   * @param framed Whether the buffer should be prefixed with the length of the packet
+   * @return Shared buffer containing the encoded packet or null if the packet is not registered.
+   * The buffer must be duplicated before it is written, so the indices of the original buffer are not modified.
+   */
+  public @Nullable ByteBuf getBuffer(final @NotNull SonarPacketRegistry registry,
+                                     final @NotNull ProtocolVersion protocolVersion,
+                                     final boolean framed) {
+    return (framed ? framedBuffers : unframedBuffers)[registry.ordinal()][protocolVersion.ordinal()];
+  }
+
   @Override
   public void encode(final @NotNull ByteBuf byteBuf, final @NotNull ProtocolVersion protocolVersion) throws Exception {
-    final Integer hash = mappings.get(protocolVersion.getProtocol());
-    if (hash == null) {
-      throw ProtocolUtil.DEBUG ? new EncoderException("Unable to find hash") : QuietDecoderException.INSTANCE;
-    }
-    final byte[] bytes = cachedBytes.get(hash);
-    if (bytes == null) {
+    final ByteBuf payload = payloads[protocolVersion.ordinal()];
+    if (payload == null) {
       throw ProtocolUtil.DEBUG ? new EncoderException("Unable to find cached packet") : QuietDecoderException.INSTANCE;
     }
-    byteBuf.writeBytes(bytes);
+    byteBuf.writeBytes(payload, payload.readerIndex(), payload.readableBytes());
   }
 
   @Override
@@ -35,6 +35,10 @@
 @NoArgsConstructor
 @AllArgsConstructor
 public final class RegistryDataPacket implements SonarPacket {
+  // Our dimension types differ from the vanilla ones (e.g. the monster spawn light level of the overworld),
+  // so their data always has to be sent, even if the client knows the vanilla core pack
+  private static final String DIMENSION_TYPE = "minecraft:dimension_type";
+
   private CompoundBinaryTag tag;
   private String type;
   private List<RegistryDataPacket.Bundle> bundles;
@@ -67,14 +71,25 @@ public void decode(final ByteBuf byteBuf, final ProtocolVersion protocolVersion)
   }
 
   public static SonarPacket @NotNull [] of(final @NotNull CompoundBinaryTag rootTag) {
+    return of(rootTag, true);
+  }
+
+  /**
+   * @param includeData Whether the data of each entry should be sent. This can be disabled if the client
+   *                    has confirmed that it already knows all entries through the vanilla core pack.
+   *                    The data of dimension types is sent either way.
+   */
+  public static SonarPacket @NotNull [] of(final @NotNull CompoundBinaryTag rootTag, final boolean includeData) {
     final SonarPacket[] packets = new SonarPacket[rootTag.size()];
     int index = 0;
     for (final String type : rootTag.keySet()) {
+      final boolean includeTypeData = includeData || type.equals(DIMENSION_TYPE);
       final ArrayList<RegistryDataPacket.Bundle> bundles = new ArrayList<>();
       for (final BinaryTag binaryTag : rootTag.getCompound(type).getList("value")) {
         final CompoundBinaryTag tag = (CompoundBinaryTag) binaryTag;
         // CompoundBinaryTag#getCompound(String) will return an empty compound tag when not exist.
-        bundles.add(new Bundle(tag.getString("name"), tag.get("element") == null ? null : tag.getCompound("element")));
+        bundles.add(new Bundle(tag.getString("name"),
+          !includeTypeData || tag.get("element") == null ? null : tag.getCompound("element")));
       }
       packets[index++] = new SonarPacketSnapshot(new RegistryDataPacket(rootTag, type, bundles));
     }
@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2026 Sonar Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xyz.jonesdev.sonar.common.protocol.packets.configuration;
+
+import io.netty.buffer.ByteBuf;
+import lombok.*;
+import org.jetbrains.annotations.NotNull;
+import xyz.jonesdev.sonar.api.antibot.protocol.ProtocolVersion;
+import xyz.jonesdev.sonar.common.protocol.SonarPacket;
+import xyz.jonesdev.sonar.common.util.ProtocolUtil;
+import xyz.jonesdev.sonar.common.util.exception.QuietDecoderException;
+
+import java.util.*;
+
+@Getter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public final class SelectKnownPacksPacket implements SonarPacket {
+  // Vanilla clients never send more than 64 known packs
+  private static final int MAX_KNOWN_PACKS = 64;
+  private static final Map<ProtocolVersion, String[]> GAME_VERSIONS = new EnumMap<>(ProtocolVersion.class);
+
+  static {
+    // The core pack is versioned by the name of the game version, so we have to include all releases of each protocol
+    GAME_VERSIONS.put(ProtocolVersion.MINECRAFT_1_20_5, new String[]{"1.20.5", "1.20.6"});
+    GAME_VERSIONS.put(ProtocolVersion.MINECRAFT_1_21, new String[]{"1.21", "1.21.1"});
+    GAME_VERSIONS.put(ProtocolVersion.MINECRAFT_1_21_2, new String[]{"1.21.2", "1.21.3"});
+    GAME_VERSIONS.put(ProtocolVersion.MINECRAFT_1_21_4, new String[]{"1.21.4"});
+    GAME_VERSIONS.put(ProtocolVersion.MINECRAFT_1_21_5, new String[]{"1.21.5"});
+    GAME_VERSIONS.put(ProtocolVersion.MINECRAFT_1_21_6, new String[]{"1.21.6"});
+    GAME_VERSIONS.put(ProtocolVersion.MINECRAFT_1_21_7, new String[]{"1.21.7", "1.21.8"});
+    GAME_VERSIONS.put(ProtocolVersion.MINECRAFT_1_21_9, new String[]{"1.21.9", "1.21.10"});
+    GAME_VERSIONS.put(ProtocolVersion.MINECRAFT_1_21_11, new String[]{"1.21.11"});
+    GAME_VERSIONS.put(ProtocolVersion.MINECRAFT_26_1, new String[]{"26.1"});
+    GAME_VERSIONS.put(ProtocolVersion.MINECRAFT_26_2, new String[]{"26.2"});
+  }
+
+  // If this is null, the vanilla core pack of the player's version is sent
+  private List<KnownPack> knownPacks;
+
+  @Override
+  public void encode(final @NotNull ByteBuf byteBuf, final @NotNull ProtocolVersion protocolVersion) {
+    final List<KnownPack> packs = knownPacks != null ? knownPacks : getCorePacks(protocolVersion);
+    ProtocolUtil.writeVarInt(byteBuf, packs.size());
+
+    for (final KnownPack pack : packs) {
+      ProtocolUtil.writeString(byteBuf, pack.getNamespace());
+      ProtocolUtil.writeString(byteBuf, pack.getId());
+      ProtocolUtil.writeString(byteBuf, pack.getVersion());
+    }
+  }
+
+  @Override
+  public void decode(final @NotNull ByteBuf byteBuf, final @NotNull ProtocolVersion protocolVersion) throws Exception {
+    final int size = ProtocolUtil.readVarInt(byteBuf);
+    if (size < 0 || size > MAX_KNOWN_PACKS) {
+      throw QuietDecoderException.INSTANCE;
+    }
+
+    knownPacks = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      knownPacks.add(new KnownPack(
+        ProtocolUtil.readString(byteBuf, 256),
+        ProtocolUtil.readString(byteBuf, 256),
+        ProtocolUtil.readString(byteBuf, 256)));
+    }
+  }
+
+  @Override
+  public int expectedMaxLength(final ProtocolVersion protocolVersion) {
+    return 0x7fff; // 32767 as a hard-limit
+  }
+
+  /**
+   * @return Whether the client has the vanilla core pack of one of the releases we've offered for its version.
+   * Any other version of the core pack might not contain all entries we send, so it doesn't count.
+   */
+  public boolean hasCorePack(final @NotNull ProtocolVersion protocolVersion) {
+    final String[] versions = GAME_VERSIONS.get(protocolVersion);
+    if (versions == null) {
+      return false;
+    }
+    for (final KnownPack pack : knownPacks) {
+      if (pack.getNamespace().equals("minecraft") && pack.getId().equals("core")) {
+        for (final String version : versions) {
+          if (pack.getVersion().equals(version)) {
+            return true;
+          }
+        }
+      }
+    }
+    return false;
+  }
+
+  private static @NotNull List<KnownPack> getCorePacks(final @NotNull ProtocolVersion protocolVersion) {
+    final String[] versions = GAME_VERSIONS.get(protocolVersion);
+    if (versions == null) {
+      return Collections.emptyList();
+    }
+    final List<KnownPack> packs = new ArrayList<>(versions.length);
+    for (final String version : versions) {
+      packs.add(new KnownPack("minecraft", "core", version));
+    }
+    return packs;
+  }
+
+  @Data
+  @Value
+  public static class KnownPack {
+    @NotNull String namespace;
+    @NotNull String id;
+    @NotNull String version;
+  }
+}
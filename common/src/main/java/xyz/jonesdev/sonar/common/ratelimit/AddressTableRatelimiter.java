@@ -0,0 +1,203 @@
+/*
+ * Copyright (C) 2026 Sonar Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xyz.jonesdev.sonar.common.ratelimit;
+
+import org.jetbrains.annotations.NotNull;
+import xyz.jonesdev.sonar.api.antibot.AddressUtil;
+import xyz.jonesdev.sonar.api.antibot.ratelimit.Ratelimiter;
+
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free open-addressing table that remembers when each IP address is allowed to connect again.
+ * Every slot takes up three longs: the address (IPv4 addresses are stored as IPv4-mapped IPv6 addresses)
+ * and a state word holding the expiry in milliseconds and the number of early reconnects.
+ * Only free or expired slots are reused, so an address can never be evicted before it has waited long enough.
+ * If all slots within the probe window are still taken, the table doubles in size; once it cannot grow any further,
+ * new addresses are denied until slots expire again.
+ */
+public final class AddressTableRatelimiter implements Ratelimiter<InetAddress> {
+  private static final int INITIAL_SLOT_COUNT = 1 << 12;
+  private static final int MAX_SLOT_COUNT = 1 << 20;
+  private static final int PROBE_WINDOW = 8;
+  // The state of a slot that is currently being written to
+  private static final long BUSY = -1L;
+  // The state of a slot that has already been copied to a larger table
+  private static final long MOVED = -2L;
+  private static final int STRIKE_SHIFT = 56;
+  private static final long EXPIRY_MASK = (1L << STRIKE_SHIFT) - 1;
+  private static final int MAX_STRIKES = 6;
+
+  private volatile AtomicLongArray table = new AtomicLongArray(INITIAL_SLOT_COUNT * 3);
+  private final long origin = System.nanoTime();
+  // Randomize the slot of each address, so nobody can fill a probe window on purpose
+  private final long seed = ThreadLocalRandom.current().nextLong();
+  private final long timeout;
+  private final boolean backoff;
+
+  public AddressTableRatelimiter(final long timeout, final @NotNull TimeUnit timeUnit, final boolean backoff) {
+    this.timeout = timeUnit.toMillis(timeout);
+    this.backoff = backoff;
+  }
+
+  @Override
+  public boolean attempt(final @NotNull InetAddress inetAddress) {
+    final long high, low;
+    if (inetAddress instanceof Inet4Address) {
+      high = 0L;
+      low = AddressUtil.getIPv4Mapped((Inet4Address) inetAddress);
+    } else {
+      final byte[] address = inetAddress.getAddress();
+      high = AddressUtil.pack(address, 0);
+      low = AddressUtil.pack(address, Long.BYTES);
+    }
+    final int hash = hash(high, low);
+
+    retry:
+    while (true) {
+      final AtomicLongArray table = this.table;
+      final int mask = table.length() / 3 - 1;
+      final int start = hash & mask;
+      final long now = currentTime();
+      int candidate = -1;
+      long candidateState = 0L;
+
+      for (int i = 0; i < PROBE_WINDOW; i++) {
+        final int slot = ((start + i) & mask) * 3;
+        long state;
+        // Wait for other threads to finish writing to the slot
+        while ((state = table.get(slot + 2)) == BUSY) {
+          Thread.onSpinWait();
+        }
+        if (state == MOVED) {
+          // Wait for the thread that is resizing the table to publish the larger table
+          while (this.table == table) {
+            Thread.onSpinWait();
+          }
+          continue retry;
+        }
+        final long expiry = state & EXPIRY_MASK;
+        if (state != 0L && table.get(slot) == high && table.get(slot + 1) == low) {
+          if (expiry <= now) {
+            // The address has waited long enough; retry if another thread changed the slot in the meantime
+            if (table.compareAndSet(slot + 2, state, now + timeout)) {
+              return true;
+            }
+            continue retry;
+          }
+          if (backoff) {
+            // Punish every early reconnect by doubling the time the player has to wait
+            final int strikes = Math.min((int) (state >>> STRIKE_SHIFT) + 1, MAX_STRIKES);
+            table.compareAndSet(slot + 2, state, ((long) strikes << STRIKE_SHIFT) | (now + (timeout << strikes)));
+          }
+          return false;
+        }
+        // Remember the first slot that is free or has expired
+        if (candidate == -1 && expiry <= now) {
+          candidate = slot;
+          candidateState = state;
+        }
+      }
+
+      if (candidate == -1) {
+        // Deny the address if the table cannot grow anymore instead of evicting another address
+        if (!grow(table)) {
+          return false;
+        }
+        continue;
+      }
+
+      // Claim the slot, write the address and publish the new state
+      if (table.compareAndSet(candidate + 2, candidateState, BUSY)) {
+        table.set(candidate, high);
+        table.set(candidate + 1, low);
+        table.set(candidate + 2, now + timeout);
+        return true;
+      }
+    }
+  }
+
+  private long currentTime() {
+    // Offset by one, so a state of 0 always means that the slot is empty
+    return (System.nanoTime() - origin) / 1_000_000L + 1L;
+  }
+
+  /**
+   * Copies all addresses that are still waiting into a table twice the size.
+   * Every copied slot is marked as moved, so concurrent writers retry on the new table instead.
+   *
+   * @return False if the table has already reached its maximum size
+   */
+  private synchronized boolean grow(final @NotNull AtomicLongArray current) {
+    if (table != current) {
+      // Another thread has already resized the table
+      return true;
+    }
+    final int slotCount = current.length() / 3;
+    if (slotCount >= MAX_SLOT_COUNT) {
+      return false;
+    }
+    final AtomicLongArray next = new AtomicLongArray(slotCount * 2 * 3);
+    final int mask = slotCount * 2 - 1;
+    final long now = currentTime();
+
+    for (int slot = 0; slot < current.length(); slot += 3) {
+      long state;
+      do {
+        while ((state = current.get(slot + 2)) == BUSY) {
+          Thread.onSpinWait();
+        }
+      } while (!current.compareAndSet(slot + 2, state, MOVED));
+
+      if ((state & EXPIRY_MASK) <= now) {
+        continue;
+      }
+      final long high = current.get(slot), low = current.get(slot + 1);
+      final int start = hash(high, low) & mask;
+      // The larger table is at most half full, so there is practically always a free slot;
+      // otherwise, keep whichever address has to wait longer
+      int target = -1;
+      long targetExpiry = Long.MAX_VALUE;
+      for (int i = 0; i < PROBE_WINDOW; i++) {
+        final int nextSlot = ((start + i) & mask) * 3;
+        final long expiry = next.get(nextSlot + 2) & EXPIRY_MASK;
+        if (expiry < targetExpiry) {
+          target = nextSlot;
+          targetExpiry = expiry;
+        }
+      }
+      if (targetExpiry < (state & EXPIRY_MASK)) {
+        next.set(target, high);
+        next.set(target + 1, low);
+        next.set(target + 2, state);
+      }
+    }
+    table = next;
+    return true;
+  }
+
+  private int hash(final long high, final long low) {
+    long hash = (high ^ seed) * 0x9E3779B97F4A7C15L;
+    hash = (hash ^ low) * 0xBF58476D1CE4E5B9L;
+    return (int) (hash ^ (hash >>> 31));
+  }
+}
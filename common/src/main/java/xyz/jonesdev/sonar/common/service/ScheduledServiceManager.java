@@ -24,7 +24,6 @@
 import xyz.jonesdev.sonar.api.update.UpdateChecker;
 import xyz.jonesdev.sonar.common.statistics.GlobalSonarStatistics;
 
-import java.sql.SQLException;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -33,7 +32,6 @@
 public final class ScheduledServiceManager {
   private final ScheduledExecutorService VERBOSE = createScheduledExecutor("sonar-verbose-thread");
   private final ScheduledExecutorService DB_CLEANUP = createScheduledExecutor("sonar-db-cleanup-thread");
-  private final ScheduledExecutorService LOGIN_QUEUE = createScheduledExecutor("sonar-queue-thread");
   private final ScheduledExecutorService STATISTICS = createScheduledExecutor("sonar-statistics-thread");
   private final ScheduledExecutorService UPDATE_NOTIFIER = createScheduledExecutor("sonar-update-notifier");
 
@@ -52,7 +50,7 @@ public void start() {
         try {
           Sonar.get0().getVerifiedPlayerController().clearOld(
             Sonar.get0().getVerifiedPlayerController().getMaximumAge(), true);
-        } catch (SQLException exception) {
+        } catch (Exception exception) {
           Sonar.get0().getLogger().error("Error cleaning database entries!");
           exception.printStackTrace(System.err);
         }
@@ -60,18 +58,14 @@ public void start() {
     }
 
     VERBOSE.scheduleAtFixedRate(() -> {
-      // Make sure to clean up the cached statistics since we don't want to display wrong values
-      GlobalSonarStatistics.cleanUpCaches();
       Sonar.get0().getAntiBot().getBlacklist().cleanUp();
+      Sonar.get0().getAntiBot().getConnectionLimiter().cleanUp();
       // Update the attack tracker
       Sonar.get0().getAttackTracker().checkIfUnderAttack();
       // Publish the action bar notifications
       Sonar.get0().getActionBarNotificationHandler().handleNotification();
     }, 0L, 250L, TimeUnit.MILLISECONDS);
 
-    LOGIN_QUEUE.scheduleAtFixedRate(() -> Sonar.get0().getAntiBot().getQueue().poll(),
-      1L, 1L, TimeUnit.SECONDS);
-
     STATISTICS.scheduleAtFixedRate(GlobalSonarStatistics::hitEverySecond,
       0L, 1L, TimeUnit.SECONDS);
 
@@ -85,7 +79,6 @@ public void start() {
   public void stop() {
     DB_CLEANUP.shutdown();
     VERBOSE.shutdown();
-    LOGIN_QUEUE.shutdown();
     STATISTICS.shutdown();
     UPDATE_NOTIFIER.shutdown();
   }
@@ -17,29 +17,23 @@
 
 package xyz.jonesdev.sonar.common.statistics;
 
-import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
-import com.github.benmanes.caffeine.cache.Ticker;
 import org.jetbrains.annotations.ApiStatus;
 import xyz.jonesdev.sonar.api.Sonar;
 import xyz.jonesdev.sonar.api.profiler.SimpleProcessProfiler;
 import xyz.jonesdev.sonar.api.statistics.SonarStatistics;
 
-import java.time.Duration;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 public final class GlobalSonarStatistics implements SonarStatistics {
-  private static final Cache<Integer, Byte> LOGINS_PER_SECOND = Caffeine.newBuilder()
-    .expireAfterWrite(Duration.ofSeconds(1))
-    .ticker(Ticker.systemTicker())
-    .build();
-
-  private static final Cache<Integer, Byte> CONNECTIONS_PER_SECOND = Caffeine.newBuilder()
-    .expireAfterWrite(Duration.ofSeconds(1))
-    .ticker(Ticker.systemTicker())
-    .build();
-
-  private static final AtomicInteger ACTION_COUNTER = new AtomicInteger(Integer.MIN_VALUE);
+  // 16 slots of 100ms each give us enough history for one full second
+  private static final SlidingWindowCounter LOGINS = new SlidingWindowCounter(16, 100L, TimeUnit.MILLISECONDS);
+  private static final SlidingWindowCounter CONNECTIONS = new SlidingWindowCounter(16, 100L, TimeUnit.MILLISECONDS);
+  private static final SlidingWindowCounter FAILED_VERIFICATIONS = new SlidingWindowCounter(16, 100L, TimeUnit.MILLISECONDS);
+  private static final SlidingWindowCounter SUCCESSFUL_VERIFICATIONS = new SlidingWindowCounter(16, 100L, TimeUnit.MILLISECONDS);
+  // Striped counters, so event loops don't fight over the same field when counting traffic
+  private static final LongAdder INCOMING_TRAFFIC = new LongAdder();
+  private static final LongAdder OUTGOING_TRAFFIC = new LongAdder();
 
   /**
    * Helper methods that make it easier to count new statistics
@@ -47,50 +41,78 @@ public final class GlobalSonarStatistics implements SonarStatistics {
 
   @ApiStatus.Internal
   public static void countConnection() {
-    CONNECTIONS_PER_SECOND.put(ACTION_COUNTER.getAndIncrement(), (byte) 0);
+    CONNECTIONS.increment();
   }
 
   @ApiStatus.Internal
   public static void countLogin() {
-    LOGINS_PER_SECOND.put(ACTION_COUNTER.getAndIncrement(), (byte) 0);
+    LOGINS.increment();
     totalJoinedPlayers++;
   }
 
+  @ApiStatus.Internal
+  public static void countIncomingTraffic(final int bytes) {
+    INCOMING_TRAFFIC.add(bytes);
+  }
+
+  @ApiStatus.Internal
+  public static void countOutgoingTraffic(final int bytes) {
+    OUTGOING_TRAFFIC.add(bytes);
+  }
+
+  @ApiStatus.Internal
+  public static void countFailedVerification() {
+    FAILED_VERIFICATIONS.increment();
+    totalFailedVerifications++;
+  }
+
+  @ApiStatus.Internal
+  public static void countSuccessfulVerification() {
+    SUCCESSFUL_VERIFICATIONS.increment();
+    totalSuccessfulVerifications++;
+  }
+
   // Cache all per-session statistics
   private static int totalJoinedPlayers;
-  public static int totalSuccessfulVerifications;
-  public static int totalFailedVerifications;
+  private static int totalSuccessfulVerifications;
+  private static int totalFailedVerifications;
   public static int totalAttemptedVerifications;
   public static long totalBlacklistedPlayers;
-  public static long totalIncomingTraffic;
-  public static long totalOutgoingTraffic;
-  public static long perSecondIncomingTraffic;
-  public static long perSecondOutgoingTraffic;
+  private static long totalIncomingTraffic;
+  private static long totalOutgoingTraffic;
+  private static volatile long perSecondIncomingTraffic;
+  private static volatile long perSecondOutgoingTraffic;
   private static String perSecondIncomingTrafficFormatted;
   private static String perSecondOutgoingTrafficFormatted;
 
-  public static void cleanUpCaches() {
-    LOGINS_PER_SECOND.cleanUp();
-    CONNECTIONS_PER_SECOND.cleanUp();
-  }
-
   public static void hitEverySecond() {
+    // Collect the traffic of the last second from all event loops
+    perSecondIncomingTraffic = INCOMING_TRAFFIC.sumThenReset();
+    perSecondOutgoingTraffic = OUTGOING_TRAFFIC.sumThenReset();
     totalIncomingTraffic += perSecondIncomingTraffic;
     totalOutgoingTraffic += perSecondOutgoingTraffic;
     perSecondIncomingTrafficFormatted = SimpleProcessProfiler.formatMemory(perSecondIncomingTraffic);
     perSecondOutgoingTrafficFormatted = SimpleProcessProfiler.formatMemory(perSecondOutgoingTraffic);
-    perSecondIncomingTraffic = 0L;
-    perSecondOutgoingTraffic = 0L;
   }
 
   @Override
   public long getConnectionsPerSecond() {
-    return CONNECTIONS_PER_SECOND.estimatedSize();
+    return CONNECTIONS.perSecond();
   }
 
   @Override
   public long getLoginsPerSecond() {
-    return LOGINS_PER_SECOND.estimatedSize();
+    return LOGINS.perSecond();
+  }
+
+  @Override
+  public long getFailedVerificationsPerSecond() {
+    return FAILED_VERIFICATIONS.perSecond();
+  }
+
+  @Override
+  public long getSuccessfulVerificationsPerSecond() {
+    return SUCCESSFUL_VERIFICATIONS.perSecond();
   }
 
   @Override
@@ -130,7 +152,7 @@ public int getTotalPlayersJoined() {
 
   @Override
   public int getTotalPlayersVerified() {
-    return Sonar.get0().getVerifiedPlayerController().getCache().size();
+    return Sonar.get0().getVerifiedPlayerController().size();
   }
 
   @Override
@@ -145,7 +167,7 @@ public int getTotalFailedVerifications() {
 
   @Override
   public long getCurrentAttemptedVerifications() {
-    return Sonar.get0().getAntiBot().getConnected().size();
+    return Sonar.get0().getAntiBot().getConnectedCount();
   }
 
   @Override
@@ -155,7 +177,7 @@ public int getTotalAttemptedVerifications() {
 
   @Override
   public long getCurrentBlacklistSize() {
-    return Sonar.get0().getAntiBot().getBlacklist().estimatedSize();
+    return Sonar.get0().getAntiBot().getBlacklist().size();
   }
 
   @Override
@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2026 Sonar Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xyz.jonesdev.sonar.common.statistics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts events using a fixed ring of time slots, so counting an event never allocates anything.
+ * Each cell packs the time slot it belongs to and its count into a single long, so moving a cell to a new slot
+ * and counting the event happen in the same compare-and-set and no event is ever lost or counted in the wrong slot.
+ * Every slot is split into several cells, which avoids contention when many threads count at the same time.
+ */
+public final class SlidingWindowCounter {
+  private static final int STRIPES = Math.min(16, Integer.highestOneBit(
+    Math.max(1, Runtime.getRuntime().availableProcessors() * 2 - 1)));
+  private static final int COUNT_BITS = 32;
+  private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+  private final long slotNanos;
+  private final int slotCount;
+  // The upper half of each cell is the (truncated) time slot, the lower half is the count
+  private final AtomicLongArray cells;
+
+  /**
+   * @param slotCount    Number of slots in the ring (must be a power of two)
+   * @param slotDuration Duration of a single slot
+   */
+  public SlidingWindowCounter(final int slotCount, final long slotDuration, final @NotNull TimeUnit timeUnit) {
+    if (Integer.bitCount(slotCount) != 1) {
+      throw new IllegalArgumentException("Number of slots must be a power of two");
+    }
+    this.slotNanos = timeUnit.toNanos(slotDuration);
+    this.slotCount = slotCount;
+    this.cells = new AtomicLongArray(slotCount * STRIPES);
+
+    // Mark all cells as outdated
+    final long outdated = tag(currentSlot() - slotCount) << COUNT_BITS;
+    for (int i = 0; i < cells.length(); i++) {
+      cells.set(i, outdated);
+    }
+  }
+
+  private long currentSlot() {
+    return Math.floorDiv(System.nanoTime(), slotNanos);
+  }
+
+  private static long tag(final long slot) {
+    return slot & COUNT_MASK;
+  }
+
+  private int index(final long slot, final int stripe) {
+    // Cells of the same stripe are next to each other, so threads counting the same slot don't share a cache line
+    return stripe * slotCount + (int) (slot & (slotCount - 1));
+  }
+
+  public void increment() {
+    final long slot = currentSlot();
+    final long tag = tag(slot);
+    final int index = index(slot, (int) Thread.currentThread().getId() & (STRIPES - 1));
+    long cell, next;
+    do {
+      cell = cells.get(index);
+      // Start counting from zero again if the cell still belongs to an outdated slot
+      next = cell >>> COUNT_BITS == tag ? cell + 1 : (tag << COUNT_BITS) | 1L;
+    } while (!cells.compareAndSet(index, cell, next));
+  }
+
+  /**
+   * @return Number of events during the given duration,
+   * counted using all completed slots (the current slot is still being written to)
+   */
+  public long sum(final long duration, final @NotNull TimeUnit timeUnit) {
+    // We cannot look further back than the ring size, excluding the current slot
+    final long slots = Math.min(slotCount - 1, Math.max(1L, timeUnit.toNanos(duration) / slotNanos));
+    final long currentSlot = currentSlot();
+    long sum = 0L;
+    for (long slot = currentSlot - slots; slot < currentSlot; slot++) {
+      final long tag = tag(slot);
+      for (int stripe = 0; stripe < STRIPES; stripe++) {
+        final long cell = cells.get(index(slot, stripe));
+        if (cell >>> COUNT_BITS == tag) {
+          sum += cell & COUNT_MASK;
+        }
+      }
+    }
+    return sum;
+  }
+
+  /**
+   * @return Number of events during the last second
+   */
+  public long perSecond() {
+    return sum(1L, TimeUnit.SECONDS);
+  }
+}
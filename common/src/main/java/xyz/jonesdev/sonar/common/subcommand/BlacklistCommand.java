@@ -25,6 +25,8 @@
 import xyz.jonesdev.sonar.api.command.subcommand.Subcommand;
 import xyz.jonesdev.sonar.api.command.subcommand.SubcommandInfo;
 
+import java.net.InetAddress;
+
 @SubcommandInfo(
   name = "blacklist",
   arguments = {"add", "remove", "clear", "size"}
@@ -43,8 +45,9 @@ protected void execute(final @NotNull InvocationSource source, final String @Not
         final String rawAddress = validateIP(source, args[2]);
         // Make sure the given IP address is valid
         if (rawAddress == null) return;
+        final InetAddress inetAddress = toInetAddress(rawAddress);
 
-        if (Sonar.get0().getAntiBot().getBlacklist().asMap().containsKey(rawAddress)) {
+        if (Sonar.get0().getAntiBot().getBlacklist().contains(inetAddress)) {
           source.sendMessage(MiniMessage.miniMessage().deserialize(
             Sonar.get0().getConfig().getMessagesConfig().getString("commands.blacklist.ip-duplicate"),
             Placeholder.component("prefix", Sonar.get0().getConfig().getPrefix()),
@@ -52,7 +55,7 @@ protected void execute(final @NotNull InvocationSource source, final String @Not
           return;
         }
 
-        Sonar.get0().getAntiBot().getBlacklist().put(rawAddress, 1337 /* arbitrarily high number */);
+        Sonar.get0().getAntiBot().getBlacklist().add(inetAddress);
         source.sendMessage(MiniMessage.miniMessage().deserialize(
           Sonar.get0().getConfig().getMessagesConfig().getString("commands.blacklist.add"),
           Placeholder.component("prefix", Sonar.get0().getConfig().getPrefix()),
@@ -70,14 +73,14 @@ protected void execute(final @NotNull InvocationSource source, final String @Not
         // Make sure the given IP address is valid
         if (rawAddress == null) return;
 
-        if (!Sonar.get0().getAntiBot().getBlacklist().asMap().containsKey(rawAddress)) {
+        // This also removes the network of the IP address from the blacklist
+        if (!Sonar.get0().getAntiBot().getBlacklist().remove(toInetAddress(rawAddress))) {
           source.sendMessage(MiniMessage.miniMessage().deserialize(
             Sonar.get0().getConfig().getMessagesConfig().getString("commands.blacklist.ip-not-found"),
             Placeholder.component("prefix", Sonar.get0().getConfig().getPrefix())));
           return;
         }
 
-        Sonar.get0().getAntiBot().getBlacklist().invalidate(rawAddress);
         source.sendMessage(MiniMessage.miniMessage().deserialize(
           Sonar.get0().getConfig().getMessagesConfig().getString("commands.blacklist.remove"),
           Placeholder.component("prefix", Sonar.get0().getConfig().getPrefix()),
@@ -86,7 +89,7 @@ protected void execute(final @NotNull InvocationSource source, final String @Not
       }
 
       case "clear": {
-        final long blacklistSize = Sonar.get0().getAntiBot().getBlacklist().estimatedSize();
+        final long blacklistSize = Sonar.get0().getAntiBot().getBlacklist().size();
 
         if (blacklistSize == 0) {
           source.sendMessage(MiniMessage.miniMessage().deserialize(
@@ -95,7 +98,7 @@ protected void execute(final @NotNull InvocationSource source, final String @Not
           return;
         }
 
-        Sonar.get0().getAntiBot().getBlacklist().invalidateAll();
+        Sonar.get0().getAntiBot().getBlacklist().clear();
         source.sendMessage(MiniMessage.miniMessage().deserialize(
           Sonar.get0().getConfig().getMessagesConfig().getString("commands.blacklist.clear"),
           Placeholder.component("prefix", Sonar.get0().getConfig().getPrefix()),
@@ -104,7 +107,7 @@ protected void execute(final @NotNull InvocationSource source, final String @Not
       }
 
       case "size": {
-        final long blacklistSize = Sonar.get0().getAntiBot().getBlacklist().estimatedSize();
+        final long blacklistSize = Sonar.get0().getAntiBot().getBlacklist().size();
 
         source.sendMessage(MiniMessage.miniMessage().deserialize(
           Sonar.get0().getConfig().getMessagesConfig().getString("commands.blacklist.size"),
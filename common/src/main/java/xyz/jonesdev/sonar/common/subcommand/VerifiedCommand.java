@@ -24,9 +24,13 @@
 import xyz.jonesdev.sonar.api.command.InvocationSource;
 import xyz.jonesdev.sonar.api.command.subcommand.Subcommand;
 import xyz.jonesdev.sonar.api.command.subcommand.SubcommandInfo;
+import xyz.jonesdev.sonar.api.database.controller.VerifiedPlayerController;
 import xyz.jonesdev.sonar.api.database.model.VerifiedPlayer;
 import xyz.jonesdev.sonar.api.fingerprint.FingerprintingUtil;
 
+import java.net.InetAddress;
+import java.util.concurrent.CompletableFuture;
+
 @SubcommandInfo(
   name = "verified",
   arguments = {"add", "remove", "clear", "size"}
@@ -47,21 +51,28 @@ protected void execute(final @NotNull InvocationSource source, final String @Not
         if (hostAddress == null) return;
 
         final String username = args[3];
-        final String fingerprint = FingerprintingUtil.getFingerprint(username, hostAddress);
-
-        if (!Sonar.get0().getVerifiedPlayerController().getCache().contains(fingerprint)) {
+        final InetAddress inetAddress = toInetAddress(hostAddress);
+        final long fingerprint = FingerprintingUtil.getFingerprint(username, inetAddress);
+
+        isVerified(fingerprint, username, inetAddress).whenComplete((verified, throwable) -> {
+          if (throwable != null) {
+            lookupFailed(source);
+            return;
+          }
+          if (!verified) {
+            source.sendMessage(MiniMessage.miniMessage().deserialize(
+              Sonar.get0().getConfig().getMessagesConfig().getString("commands.verified.ip-not-found"),
+              Placeholder.component("prefix", Sonar.get0().getConfig().getPrefix())));
+            return;
+          }
+
+          Sonar.get0().getVerifiedPlayerController().remove(fingerprint);
           source.sendMessage(MiniMessage.miniMessage().deserialize(
-            Sonar.get0().getConfig().getMessagesConfig().getString("commands.verified.ip-not-found"),
-            Placeholder.component("prefix", Sonar.get0().getConfig().getPrefix())));
-          return;
-        }
-
-        Sonar.get0().getVerifiedPlayerController().remove(fingerprint);
-        source.sendMessage(MiniMessage.miniMessage().deserialize(
-          Sonar.get0().getConfig().getMessagesConfig().getString("commands.verified.remove"),
-          Placeholder.component("prefix", Sonar.get0().getConfig().getPrefix()),
-          Placeholder.unparsed("ip", hostAddress),
-          Placeholder.unparsed("username", username)));
+            Sonar.get0().getConfig().getMessagesConfig().getString("commands.verified.remove"),
+            Placeholder.component("prefix", Sonar.get0().getConfig().getPrefix()),
+            Placeholder.unparsed("ip", hostAddress),
+            Placeholder.unparsed("username", username)));
+        });
         break;
       }
 
@@ -76,26 +87,33 @@ protected void execute(final @NotNull InvocationSource source, final String @Not
         if (hostAddress == null) return;
 
         final String username = args[3];
-        final String fingerprint = FingerprintingUtil.getFingerprint(username, hostAddress);
-
-        if (Sonar.get0().getVerifiedPlayerController().getCache().contains(fingerprint)) {
+        final InetAddress inetAddress = toInetAddress(hostAddress);
+        final long fingerprint = FingerprintingUtil.getFingerprint(username, inetAddress);
+
+        isVerified(fingerprint, username, inetAddress).whenComplete((verified, throwable) -> {
+          if (throwable != null) {
+            lookupFailed(source);
+            return;
+          }
+          if (verified) {
+            source.sendMessage(MiniMessage.miniMessage().deserialize(
+              Sonar.get0().getConfig().getMessagesConfig().getString("commands.verified.already"),
+              Placeholder.component("prefix", Sonar.get0().getConfig().getPrefix())));
+            return;
+          }
+
+          Sonar.get0().getVerifiedPlayerController().add(new VerifiedPlayer(fingerprint, System.currentTimeMillis()));
           source.sendMessage(MiniMessage.miniMessage().deserialize(
-            Sonar.get0().getConfig().getMessagesConfig().getString("commands.verified.already"),
-            Placeholder.component("prefix", Sonar.get0().getConfig().getPrefix())));
-          return;
-        }
-
-        Sonar.get0().getVerifiedPlayerController().add(new VerifiedPlayer(fingerprint, System.currentTimeMillis()));
-        source.sendMessage(MiniMessage.miniMessage().deserialize(
-          Sonar.get0().getConfig().getMessagesConfig().getString("commands.verified.add"),
-          Placeholder.component("prefix", Sonar.get0().getConfig().getPrefix()),
-          Placeholder.unparsed("ip", hostAddress),
-          Placeholder.unparsed("username", username)));
+            Sonar.get0().getConfig().getMessagesConfig().getString("commands.verified.add"),
+            Placeholder.component("prefix", Sonar.get0().getConfig().getPrefix()),
+            Placeholder.unparsed("ip", hostAddress),
+            Placeholder.unparsed("username", username)));
+        });
         break;
       }
 
       case "clear": {
-        final int verifiedSize = Sonar.get0().getVerifiedPlayerController().getCache().size();
+        final int verifiedSize = Sonar.get0().getVerifiedPlayerController().size();
 
         if (verifiedSize == 0) {
           source.sendMessage(MiniMessage.miniMessage().deserialize(
@@ -113,7 +131,7 @@ protected void execute(final @NotNull InvocationSource source, final String @Not
       }
 
       case "size": {
-        final int verifiedSize = Sonar.get0().getVerifiedPlayerController().getCache().size();
+        final int verifiedSize = Sonar.get0().getVerifiedPlayerController().size();
 
         source.sendMessage(MiniMessage.miniMessage().deserialize(
           Sonar.get0().getConfig().getMessagesConfig().getString("commands.verified.size"),
@@ -128,4 +146,24 @@ protected void execute(final @NotNull InvocationSource source, final String @Not
       }
     }
   }
+
+  /**
+   * Checks if the player is verified without blocking the thread executing the command,
+   * since players that aren't kept in memory have to be looked up in the database
+   */
+  private static @NotNull CompletableFuture<Boolean> isVerified(final long fingerprint,
+                                                                final @NotNull String username,
+                                                                final @NotNull InetAddress inetAddress) {
+    final VerifiedPlayerController verifiedPlayerController = Sonar.get0().getVerifiedPlayerController();
+    if (verifiedPlayerController.isVerified(fingerprint, username, inetAddress)) {
+      return CompletableFuture.completedFuture(true);
+    }
+    return verifiedPlayerController.lookup(fingerprint);
+  }
+
+  private static void lookupFailed(final @NotNull InvocationSource source) {
+    source.sendMessage(MiniMessage.miniMessage().deserialize(
+      Sonar.get0().getConfig().getMessagesConfig().getString("commands.verified.lookup-failed"),
+      Placeholder.component("prefix", Sonar.get0().getConfig().getPrefix())));
+  }
 }
@@ -18,7 +18,6 @@
 package xyz.jonesdev.sonar.common.verification;
 
 import org.jetbrains.annotations.NotNull;
-import xyz.jonesdev.sonar.api.Sonar;
 import xyz.jonesdev.sonar.api.antibot.SonarUser;
 import xyz.jonesdev.sonar.api.antibot.protocol.ProtocolVersion;
 import xyz.jonesdev.sonar.common.protocol.CaptchaPreparer;
@@ -33,18 +32,18 @@
 
 public final class CaptchaHandler extends VerificationHandler {
 
-  public CaptchaHandler(final @NotNull SonarUser user) {
-    super(user);
+  public CaptchaHandler(final @NotNull SonarUser user, final @NotNull VerificationPolicy policy) {
+    super(user, policy);
 
     // Disconnect the player if there is no CAPTCHA available at the moment
     if (!CaptchaPreparer.isCaptchaAvailable()) {
-      user.disconnect(Sonar.get0().getConfig().getVerification().getCurrentlyPreparing());
+      user.disconnect(policy.getCurrentlyPreparing());
       throw QuietDecoderException.INSTANCE;
     }
 
-    this.tries = Sonar.get0().getConfig().getVerification().getMap().getMaxTries();
+    this.tries = policy.getMaxCaptchaTries();
 
-    final boolean placeInOffhand = Sonar.get().getConfig().getVerification().getMap().isPlaceInOffhand()
+    final boolean placeInOffhand = policy.isPlaceInOffhand()
       && user.getProtocolVersion().greaterThanOrEquals(ProtocolVersion.MINECRAFT_1_9);
     if (placeInOffhand) {
       user.delayedWrite(CAPTCHA_SET_CONTAINER_SLOT_OFFHAND);
@@ -70,10 +69,21 @@ public CaptchaHandler(final @NotNull SonarUser user) {
   private final String answer;
   private int tries, lastCountdownIndex, keepAliveStreak;
 
+  // Clients keep sending movement packets while entering the CAPTCHA
+  @Override
+  public int getMaxPacketsPerSecond() {
+    return 80;
+  }
+
+  @Override
+  public int getMaxPacketBurst() {
+    return 60;
+  }
+
   @Override
   public void handle(final @NotNull SonarPacket packet) {
     // Check if the player took too long to enter the CAPTCHA
-    final int maxDuration = Sonar.get0().getConfig().getVerification().getMap().getMaxDuration();
+    final int maxDuration = policy.getMaxCaptchaDuration();
     checkState(!user.getLoginTimer().elapsed(maxDuration), "took too long to enter CAPTCHA");
 
     if (packet instanceof SystemChatPacket) {
@@ -90,7 +100,7 @@ public void handle(final @NotNull SonarPacket packet) {
     } else if (packet instanceof SetPlayerPositionPacket
       || packet instanceof SetPlayerPositionRotationPacket) {
       // A position packet is sent approximately every second
-      if (Sonar.get0().getConfig().getVerification().getGamemode().isSurvivalOrAdventure()) {
+      if (policy.isSurvivalOrAdventure()) {
         final long difference = maxDuration - user.getLoginTimer().delay();
         final int index = (int) (difference / 1000D);
         // Make sure we can safely get and send the packet
@@ -26,66 +26,30 @@
 import xyz.jonesdev.sonar.common.protocol.SonarPacketDecoder;
 import xyz.jonesdev.sonar.common.protocol.packets.play.*;
 
-import static xyz.jonesdev.sonar.api.config.SonarConfiguration.Verification.Gamemode.CREATIVE;
 import static xyz.jonesdev.sonar.common.protocol.SonarPacketPreparer.*;
 
 public final class GravityHandler extends VerificationHandler {
 
   public GravityHandler(final @NotNull SonarUser user,
+                        final @NotNull VerificationPolicy policy,
                         final @NotNull LoginHandler preJoinHandler) {
-    super(user);
+    super(user, policy);
 
     this.preJoinHandler = preJoinHandler;
     // Bedrock users start falling immediately
     this.canFall = user.isGeyser();
     // We don't want to check Geyser players for valid gravity, as this might cause issues because of the protocol
-    this.enableGravityCheck = !user.isGeyser() && AntiBot.shouldPerform(
-      Sonar.get0().getConfig().getVerification().getGravity().getTiming());
-    this.enableCollisionsCheck = !user.isGeyser() && AntiBot.shouldPerform(
-      Sonar.get0().getConfig().getVerification().getGravity().getCollisionTiming());
-
-    // First, write the JoinGame packet to the buffer
-    user.delayedWrite(joinGame);
-    // Then, write the ClientAbilities packet to the buffer
-    // This is only necessary if the player is in creative mode
-    if (Sonar.get0().getConfig().getVerification().getGamemode() == CREATIVE) {
-      user.delayedWrite(DEFAULT_ABILITIES);
-    }
-    // Write the DefaultSpawnPosition packet to the buffer
-    if (user.getProtocolVersion().greaterThanOrEquals(ProtocolVersion.MINECRAFT_1_19_3)) {
-      user.delayedWrite(defaultSpawnPosition);
-    }
-    // Teleport the player to the position where we're starting to check them
-    if (user.getProtocolVersion().greaterThanOrEquals(ProtocolVersion.MINECRAFT_1_8)) {
-      user.delayedWrite(spawnPosition);
-      user.delayedWrite(fallStartPosition);
-    } else {
-      // 1.7.2-1.7.10 clients do not have relative teleports
-      user.delayedWrite(fallStartPositionLegacy);
-    }
-    // 1.20.3+ introduced game events
-    // Make sure the client knows that we're sending chunks next
-    if (user.getProtocolVersion().greaterThanOrEquals(ProtocolVersion.MINECRAFT_1_20_3)) {
-      user.delayedWrite(START_WRITING_CHUNKS);
+    this.enableGravityCheck = !user.isGeyser() && AntiBot.shouldPerform(policy.getGravityTiming());
+    this.enableCollisionsCheck = !user.isGeyser() && AntiBot.shouldPerform(policy.getCollisionTiming());
 
-      for (final SonarPacket section : EMPTY_CHUNK_DATA) {
-        user.delayedWrite(section);
-      }
-    } else {
-      user.delayedWrite(EMPTY_CHUNK_DATA[0]);
-    }
     // Spawn the invisible platform below the player
+    int bundleIndex = BLOCKS_PACKETS.length;
     if (enableCollisionsCheck) {
-      final int index = RANDOM.nextInt(BLOCKS_PACKETS.length);
-      blockHeight = POSSIBLE_BLOCK_TYPES[index].getBlockHeight().apply(user.getProtocolVersion());
-      user.delayedWrite(BLOCKS_PACKETS[index]);
+      bundleIndex = RANDOM.nextInt(BLOCKS_PACKETS.length);
+      blockHeight = POSSIBLE_BLOCK_TYPES[bundleIndex].getBlockHeight().apply(user.getProtocolVersion());
     }
-    // Update the world time, if necessary
-    if (updateTime != null) {
-      user.delayedWrite(updateTime);
-    }
-    // Send all packets at once
-    user.channel().flush();
+    // Send all packets needed for joining the world at once
+    user.write(joinBundles[bundleIndex]);
 
     // 1.8 and below don't have TeleportConfirm packets, which is why we're skipping that check.
     if (user.getProtocolVersion().lessThan(ProtocolVersion.MINECRAFT_1_9)) {
@@ -101,6 +65,17 @@ public GravityHandler(final @NotNull SonarUser user,
   private int movementTick, tickWithoutMove, expectedTeleportId = FIRST_TELEPORT_ID;
   private SetPlayerPositionRotationPacket lastPositionPacket;
 
+  // Clients send up to two movement packets per tick, but might have to catch up after lagging
+  @Override
+  public int getMaxPacketsPerSecond() {
+    return 100;
+  }
+
+  @Override
+  public int getMaxPacketBurst() {
+    return 100;
+  }
+
   @Override
   public void handle(final @NotNull SonarPacket packet) {
     if (packet instanceof SetPlayerPositionRotationPacket) {
@@ -193,7 +168,7 @@ private void markSuccess() {
       preJoinHandler.validateClientInformation();
     }
     // Send the player to the next verification handler
-    user.channel().pipeline().get(SonarPacketDecoder.class).setListener(new ProtocolHandler(user));
+    user.channel().pipeline().get(SonarPacketDecoder.class).setListener(new ProtocolHandler(user, policy));
   }
 
   private void handleMovement(final double x, final double y, final double z,
@@ -229,7 +204,7 @@ private void handleMovement(final double x, final double y, final double z,
     this.y = y;
 
     // Log/debug position if enabled in the configuration
-    if (Sonar.get0().getConfig().getVerification().isDebugXYZPositions()) {
+    if (policy.isDebugXYZPositions()) {
       Sonar.get0().getLogger().info("{}: {}/{}/{} ly={}, dy={}, h={}, g={}, r={}",
         user.getUsername(), x, y, z, lastY, deltaY, blockHeight, onGround, rotated);
     }
@@ -299,7 +274,7 @@ private void handleMovement(final double x, final double y, final double z,
 
   private void failOrShowCaptcha(final String debug) {
     // Do not throw an exception if the user configured to display the CAPTCHA instead
-    if (Sonar.get0().getConfig().getVerification().getGravity().isCaptchaOnFail()) {
+    if (policy.isCaptchaOnFail()) {
       user.setForceCaptcha(true);
       markSuccess();
       return;
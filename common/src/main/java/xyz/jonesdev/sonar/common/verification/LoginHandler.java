@@ -18,14 +18,15 @@
 package xyz.jonesdev.sonar.common.verification;
 
 import org.jetbrains.annotations.NotNull;
-import xyz.jonesdev.sonar.api.Sonar;
 import xyz.jonesdev.sonar.api.antibot.SonarUser;
 import xyz.jonesdev.sonar.api.antibot.protocol.ProtocolVersion;
+import xyz.jonesdev.sonar.common.netty.MinecraftVarInt21FrameDecoder;
 import xyz.jonesdev.sonar.common.protocol.SonarPacket;
 import xyz.jonesdev.sonar.common.protocol.SonarPacketDecoder;
 import xyz.jonesdev.sonar.common.protocol.SonarPacketEncoder;
 import xyz.jonesdev.sonar.common.protocol.SonarPacketRegistry;
 import xyz.jonesdev.sonar.common.protocol.packets.configuration.FinishConfigurationPacket;
+import xyz.jonesdev.sonar.common.protocol.packets.configuration.SelectKnownPacksPacket;
 import xyz.jonesdev.sonar.common.protocol.packets.login.LoginAcknowledgedPacket;
 import xyz.jonesdev.sonar.common.protocol.packets.play.ClientInformationPacket;
 import xyz.jonesdev.sonar.common.protocol.packets.play.KeepAlivePacket;
@@ -33,14 +34,13 @@
 
 import java.nio.charset.StandardCharsets;
 import java.util.concurrent.TimeUnit;
-import java.util.regex.Pattern;
 
 import static xyz.jonesdev.sonar.common.protocol.SonarPacketPreparer.*;
 
 public final class LoginHandler extends VerificationHandler {
 
-  public LoginHandler(final @NotNull SonarUser user) {
-    super(user);
+  public LoginHandler(final @NotNull SonarUser user, final @NotNull VerificationPolicy policy) {
+    super(user, policy);
 
     // Start initializing the actual join process for pre-1.20.2 clients
     if (user.getProtocolVersion().lessThan(ProtocolVersion.MINECRAFT_1_20_2)) {
@@ -59,9 +59,20 @@ public LoginHandler(final @NotNull SonarUser user) {
     }
   }
 
-  private boolean receivedClientInfo, receivedClientBrand, acknowledgedLogin;
+  private boolean receivedClientInfo, receivedClientBrand, acknowledgedLogin, expectKnownPacks;
   private int expectedKeepAliveId = PRE_JOIN_KEEP_ALIVE_ID;
 
+  // Modded clients may send a lot of plugin messages during the configuration phase
+  @Override
+  public int getMaxPacketsPerSecond() {
+    return 40;
+  }
+
+  @Override
+  public int getMaxPacketBurst() {
+    return 100;
+  }
+
   @Override
   public void handle(final @NotNull SonarPacket packet) {
     if (packet instanceof KeepAlivePacket) {
@@ -92,7 +103,17 @@ public void handle(final @NotNull SonarPacket packet) {
       updateEncoderDecoderState(SonarPacketRegistry.CONFIG);
       // Perform the KeepAlive check now (config, not pre-config)
       user.write(PRE_JOIN_KEEP_ALIVE);
+    } else if (packet instanceof SelectKnownPacksPacket) {
+      // Make sure we've actually asked the client for its known packs
+      checkState(expectKnownPacks, "unexpected known packs");
+      expectKnownPacks = false;
+      // Modded clients might not know the vanilla data, so we have to send everything to them
+      final boolean knownPacks = ((SelectKnownPacksPacket) packet).hasCorePack(user.getProtocolVersion());
+      // Send the RegistrySync, tags and FinishConfiguration packets at once
+      user.write(knownPacks ? KNOWN_PACKS_CONFIGURATION_BUNDLE : CONFIGURATION_BUNDLE);
     } else if (packet instanceof FinishConfigurationPacket) {
+      // The client cannot finish the configuration before we've sent the registry data
+      checkState(!expectKnownPacks, "finished configuration before sending known packs");
       // Update the encoder and decoder state because we're currently in the CONFIG state
       updateEncoderDecoderState(SonarPacketRegistry.GAME);
       if (!user.isGeyser()) {
@@ -121,7 +142,7 @@ public void handle(final @NotNull SonarPacket packet) {
       }
 
       // Validate the client branding using a regex to filter unwanted characters.
-      if (Sonar.get0().getConfig().getVerification().getBrand().isEnabled()) {
+      if (policy.isBrandEnabled()) {
         // Make sure the player isn't sending the client brand multiple times
         checkState(!receivedClientBrand, "sent duplicate client brand");
 
@@ -134,30 +155,26 @@ public void handle(final @NotNull SonarPacket packet) {
 
   private void markAcknowledged() {
     acknowledgedLogin = true;
-    // Write the new RegistrySync packets to the buffer
-    for (final SonarPacket packet : getRegistryPackets(user.getProtocolVersion())) {
-      user.delayedWrite(packet);
-    }
-    // Write the tags because Mojang decided to screw everyone over in 26.1.
-    final SonarPacket tags = getTagsPacket(user.getProtocolVersion());
-    if (tags != null) {
-      user.delayedWrite(tags);
+    // 1.20.5+ clients are able to tell us which data they already know,
+    // which allows us to skip most of the registry data
+    if (user.getProtocolVersion().greaterThanOrEquals(ProtocolVersion.MINECRAFT_1_20_5)) {
+      expectKnownPacks = true;
+      user.write(SELECT_KNOWN_PACKS);
+      return;
     }
-    // Write the FinishConfiguration packet to the buffer
-    user.delayedWrite(FinishConfigurationPacket.INSTANCE);
-    // Send all packets in one flush
-    user.channel().flush();
+    // Send the RegistrySync, tags and FinishConfiguration packets at once
+    user.write(CONFIGURATION_BUNDLE);
   }
 
   private void markSuccess() {
     if (user.channel().isActive()) {
-      if (!Sonar.get0().getConfig().getVerification().getValidNameRegex().matcher(user.getUsername()).matches()) {
-        user.disconnect(Sonar.get0().getConfig().getVerification().getInvalidUsername());
+      if (!policy.getValidNameRegex().matcher(user.getUsername()).matches()) {
+        user.disconnect(policy.getInvalidUsername());
         return;
       }
 
       // Pass the player to the next verification handler
-      final GravityHandler gravityHandler = new GravityHandler(user, this);
+      final GravityHandler gravityHandler = new GravityHandler(user, policy, this);
       user.channel().pipeline().get(SonarPacketDecoder.class).setListener(gravityHandler);
     }
   }
@@ -169,6 +186,7 @@ void validateClientInformation() {
 
   private void updateEncoderDecoderState(final @NotNull SonarPacketRegistry registry) {
     // Update the packet registry state in the encoder and decoder pipelines
+    user.channel().pipeline().get(MinecraftVarInt21FrameDecoder.class).updateRegistry(registry);
     user.channel().pipeline().get(SonarPacketDecoder.class).updateRegistry(registry);
     user.channel().pipeline().get(SonarPacketEncoder.class).updateRegistry(registry);
   }
@@ -177,7 +195,7 @@ private void validateClientBrand(final byte @NotNull [] data) {
     // Check if the client brand is too short. It has to have at least 2 bytes.
     checkState(data.length > 1, "client brand is too short");
     // Check if the decoded client brand string is too long
-    checkState(data.length < Sonar.get0().getConfig().getVerification().getBrand().getMaxLength(),
+    checkState(data.length < policy.getMaxBrandLength(),
       "client brand contains too much data: " + data.length);
     // https://discord.com/channels/923308209769426994/1116066363887321199/1256929441053933608
     String brand = new String(data, StandardCharsets.UTF_8);
@@ -186,7 +204,6 @@ private void validateClientBrand(final byte @NotNull [] data) {
       brand = brand.substring(1);
     }
     // Regex pattern for validating client brands
-    final Pattern pattern = Sonar.get0().getConfig().getVerification().getBrand().getValidRegex();
-    checkState(pattern.matcher(brand).matches(), "client brand does not match pattern: " + brand);
+    checkState(policy.getValidBrandRegex().matcher(brand).matches(), "client brand does not match pattern: " + brand);
   }
 }
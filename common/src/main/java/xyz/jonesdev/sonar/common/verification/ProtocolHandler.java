@@ -18,7 +18,6 @@
 package xyz.jonesdev.sonar.common.verification;
 
 import org.jetbrains.annotations.NotNull;
-import xyz.jonesdev.sonar.api.Sonar;
 import xyz.jonesdev.sonar.api.antibot.AntiBot;
 import xyz.jonesdev.sonar.api.antibot.SonarUser;
 import xyz.jonesdev.sonar.api.antibot.protocol.ProtocolVersion;
@@ -34,8 +33,8 @@
 
 public final class ProtocolHandler extends VerificationHandler {
 
-  public ProtocolHandler(final @NotNull SonarUser user) {
-    super(user);
+  public ProtocolHandler(final @NotNull SonarUser user, final @NotNull VerificationPolicy policy) {
+    super(user, policy);
 
     // Immediately send the player the transaction packet
     sendTransaction();
@@ -45,6 +44,17 @@ public ProtocolHandler(final @NotNull SonarUser user) {
   private short expectedTransactionId;
   private int currentClientSlotId, expectedSlotId = -1;
 
+  // Same as the gravity check, since the player keeps moving
+  @Override
+  public int getMaxPacketsPerSecond() {
+    return 100;
+  }
+
+  @Override
+  public int getMaxPacketBurst() {
+    return 100;
+  }
+
   @Override
   public void handle(final @NotNull SonarPacket packet) {
     if (packet instanceof TransactionPacket) {
@@ -165,10 +175,10 @@ private void sendArmAnimation() {
   private void markSuccess() {
     // Pass the player to the next best verification handler
     if (!user.isGeyser()
-      && AntiBot.shouldPerform(Sonar.get0().getConfig().getVerification().getVehicle().getTiming())) {
-      user.channel().pipeline().get(SonarPacketDecoder.class).setListener(new VehicleHandler(user));
-    } else if (user.isForceCaptcha() || Sonar.get0().getAntiBot().shouldPerformCaptcha()) {
-      user.channel().pipeline().get(SonarPacketDecoder.class).setListener(new CaptchaHandler(user));
+      && AntiBot.shouldPerform(policy.getVehicleTiming())) {
+      user.channel().pipeline().get(SonarPacketDecoder.class).setListener(new VehicleHandler(user, policy));
+    } else if (user.isForceCaptcha() || AntiBot.shouldPerform(policy.getCaptchaTiming())) {
+      user.channel().pipeline().get(SonarPacketDecoder.class).setListener(new CaptchaHandler(user, policy));
     } else {
       // The player has passed all checks
       finishVerification();
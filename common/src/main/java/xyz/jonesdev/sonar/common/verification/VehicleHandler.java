@@ -19,7 +19,7 @@
 
 import lombok.RequiredArgsConstructor;
 import org.jetbrains.annotations.NotNull;
-import xyz.jonesdev.sonar.api.Sonar;
+import xyz.jonesdev.sonar.api.antibot.AntiBot;
 import xyz.jonesdev.sonar.api.antibot.SonarUser;
 import xyz.jonesdev.sonar.api.antibot.protocol.ProtocolVersion;
 import xyz.jonesdev.sonar.common.protocol.SonarPacket;
@@ -30,8 +30,8 @@
 
 public final class VehicleHandler extends VerificationHandler {
 
-  public VehicleHandler(final @NotNull SonarUser user) {
-    super(user);
+  public VehicleHandler(final @NotNull SonarUser user, final @NotNull VerificationPolicy policy) {
+    super(user, policy);
 
     spawnVehicle(State.IN_BOAT);
   }
@@ -54,6 +54,17 @@ private enum State {
     private final boolean inVehicle;
   }
 
+  // Clients send up to five packets per tick while riding a vehicle
+  @Override
+  public int getMaxPacketsPerSecond() {
+    return 150;
+  }
+
+  @Override
+  public int getMaxPacketBurst() {
+    return 100;
+  }
+
   @Override
   public void handle(final @NotNull SonarPacket packet) {
     if (packet instanceof KeepAlivePacket) {
@@ -142,8 +153,8 @@ private void prepareForNextState(final @NotNull State nextState) {
 
   private void markSuccess() {
     // Pass the player to the next best verification handler
-    if (user.isForceCaptcha() || Sonar.get0().getAntiBot().shouldPerformCaptcha()) {
-      user.channel().pipeline().get(SonarPacketDecoder.class).setListener(new CaptchaHandler(user));
+    if (user.isForceCaptcha() || AntiBot.shouldPerform(policy.getCaptchaTiming())) {
+      user.channel().pipeline().get(SonarPacketDecoder.class).setListener(new CaptchaHandler(user, policy));
     } else {
       finishVerification();
     }
@@ -185,7 +196,7 @@ private void handlePlayerInput() {
     inputs++;
 
     // Check if we've received more than the minimum number of packets
-    final int minimumPackets = Sonar.get0().getConfig().getVerification().getVehicle().getMinimumPackets();
+    final int minimumPackets = policy.getMinimumVehiclePackets();
     if (inputs > minimumPackets && rotations > minimumPackets
       && paddles > minimumPackets && vehicleMoves > minimumPackets) {
       // Move on to the next stage
@@ -17,6 +17,7 @@
 
 package xyz.jonesdev.sonar.common.verification;
 
+import io.netty.handler.flush.FlushConsolidationHandler;
 import lombok.RequiredArgsConstructor;
 import org.jetbrains.annotations.NotNull;
 import xyz.jonesdev.sonar.api.Sonar;
@@ -27,7 +28,6 @@
 import xyz.jonesdev.sonar.api.event.impl.UserVerifyFailedEvent;
 import xyz.jonesdev.sonar.api.event.impl.UserVerifySuccessEvent;
 import xyz.jonesdev.sonar.common.netty.MinecraftVarInt21FrameDecoder;
-import xyz.jonesdev.sonar.common.netty.MinecraftVarIntLengthEncoder;
 import xyz.jonesdev.sonar.common.protocol.SonarPacketDecoder;
 import xyz.jonesdev.sonar.common.protocol.SonarPacketEncoder;
 import xyz.jonesdev.sonar.common.protocol.SonarPacketListener;
@@ -41,11 +41,12 @@
 @RequiredArgsConstructor
 public abstract class VerificationHandler implements SonarPacketListener {
   protected final SonarUser user;
+  protected final VerificationPolicy policy;
 
   protected static final Random RANDOM = new Random();
 
   protected final void finishVerification() {
-    GlobalSonarStatistics.totalSuccessfulVerifications++;
+    GlobalSonarStatistics.countSuccessfulVerification();
 
     // Add verified player to the database
     Sonar.get0().getVerifiedPlayerController().add(new VerifiedPlayer(
@@ -57,17 +58,14 @@ protected final void finishVerification() {
     // If enabled, transfer the player back to the origin server.
     // This feature was introduced by Mojang in Minecraft version 1.20.5.
     if (user.getProtocolVersion().greaterThanOrEquals(ProtocolVersion.MINECRAFT_1_20_5)
-      && Sonar.get0().getConfig().getGeneralConfig().getBoolean("verification.transfer.enabled")) {
+      && policy.isTransferEnabled()) {
       // Use the original handshake hostname if configured and available (for forced hosts / proxy setups),
       // otherwise fall back to the configured destination host.
       final String hostname = user.getHostname();
-      final boolean useHandshake = Sonar.get0().getConfig().getGeneralConfig()
-        .getBoolean("verification.transfer.use-handshake-hostname");
-      final String destinationHost = useHandshake && hostname != null && !hostname.isEmpty()
+      final String destinationHost = policy.isTransferToHandshakeHostname() && hostname != null && !hostname.isEmpty()
         ? hostname
-        : Sonar.get0().getConfig().getGeneralConfig().getString("verification.transfer.destination-host");
-      final int destinationPort = Sonar.get0().getConfig().getGeneralConfig().getInt("verification.transfer.destination-port");
-      final TransferPacket transferPacket = new TransferPacket(destinationHost, destinationPort);
+        : policy.getTransferHost();
+      final TransferPacket transferPacket = new TransferPacket(destinationHost, policy.getTransferPort());
       // Send the transfer packet to the player (and close the channel if on Java Edition)
       if (user.isGeyser()) {
         user.write(transferPacket);
@@ -75,32 +73,33 @@ protected final void finishVerification() {
         user.channel().pipeline().remove(SonarPacketDecoder.class);
         user.channel().pipeline().remove(SonarPacketEncoder.class);
         user.channel().pipeline().remove(MinecraftVarInt21FrameDecoder.class);
-        user.channel().pipeline().remove(MinecraftVarIntLengthEncoder.class);
+        // Removing the flush consolidation handler also flushes the transfer packet
+        user.channel().pipeline().remove(FlushConsolidationHandler.class);
       } else {
         ProtocolUtil.closeWith(user.channel(), user.getProtocolVersion(), transferPacket);
       }
     } else {
       // Disconnect player with the verification success message
-      user.disconnect(Sonar.get0().getConfig().getVerification().getVerificationSuccess());
+      user.disconnect(policy.getVerificationSuccess());
     }
 
     Sonar.get0().getLogger().info(
-      Sonar.get0().getConfig().getMessagesConfig().getString("verification.logs.successful")
+      policy.getSuccessLog()
         .replace("<username>", user.getUsername())
         .replace("<time-taken>", user.getLoginTimer().toString()));
   }
 
   protected final void fail(final @NotNull String reason) {
-    GlobalSonarStatistics.totalFailedVerifications++;
+    GlobalSonarStatistics.countFailedVerification();
 
-    user.disconnect(Sonar.get0().getConfig().getVerification().getVerificationFailed());
+    user.disconnect(policy.getVerificationFailed());
 
     final boolean shouldLog = Sonar.get0().getAttackTracker().getCurrentAttack() == null
-      || Sonar.get0().getConfig().getVerification().isLogDuringAttack();
+      || policy.isLogDuringAttack();
 
     if (shouldLog) {
       Sonar.get0().getLogger().info(
-        Sonar.get0().getConfig().getMessagesConfig().getString("verification.logs.failed")
+        policy.getFailLog()
           .replace("<username>", user.getUsername())
           .replace("<ip>", Sonar.get0().getConfig().formatAddress(user.getInetAddress()))
           .replace("<protocol>", user.getProtocolVersion().getName())
@@ -112,14 +111,10 @@ protected final void fail(final @NotNull String reason) {
 
     // Use a label, so we can easily add more code beneath this method in the future
     blacklist: {
-      final String hostAddress = user.getInetAddress().getHostAddress();
-      final int score = Sonar.get0().getAntiBot().getBlacklist().get(hostAddress, __ -> 0);
-      final int newScore = score + 1;
-
-      Sonar.get0().getAntiBot().getBlacklist().put(hostAddress, newScore);
-
       // The user is allowed to disable the blacklist entirely by setting the threshold to 0
-      final int limit = Sonar.get0().getConfig().getVerification().getBlacklistThreshold();
+      final int limit = policy.getBlacklistThreshold();
+      final int newScore = Sonar.get0().getAntiBot().getBlacklist().fail(user.getInetAddress(),
+        limit, policy.getBlacklistEscalation());
       // The player hasn't been blacklisted yet, so skip this iteration
       if (limit <= 0 || newScore < limit) break blacklist;
 
@@ -130,7 +125,7 @@ protected final void fail(final @NotNull String reason) {
 
       if (shouldLog) {
         Sonar.get0().getLogger().info(
-          Sonar.get0().getConfig().getMessagesConfig().getString("verification.logs.blacklisted")
+          policy.getBlacklistLog()
             .replace("<username>", user.getUsername())
             .replace("<ip>", Sonar.get0().getConfig().formatAddress(user.getInetAddress()))
             .replace("<protocol>", user.getProtocolVersion().getName()));
@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2026 Sonar Contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package xyz.jonesdev.sonar.common.verification;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import net.kyori.adventure.text.Component;
+import org.jetbrains.annotations.NotNull;
+import xyz.jonesdev.sonar.api.antibot.protocol.ProtocolVersion;
+import xyz.jonesdev.sonar.api.config.SimpleYamlConfig;
+import xyz.jonesdev.sonar.api.config.SonarConfiguration;
+
+import java.util.regex.Pattern;
+
+/**
+ * Immutable snapshot of all settings used while verifying a player.
+ * A new policy is compiled on every reload and swapped in atomically;
+ * sessions capture the policy once, so they keep a consistent view during a reload.
+ */
+@Getter
+public final class VerificationPolicy {
+  private static volatile VerificationPolicy current;
+
+  public static @NotNull VerificationPolicy get() {
+    return current;
+  }
+
+  public static void update(final @NotNull SonarConfiguration config) {
+    current = new VerificationPolicy(config);
+  }
+
+  // Checks
+  private final SonarConfiguration.Verification.Timing gravityTiming, collisionTiming, vehicleTiming, captchaTiming;
+  private final boolean captchaOnFail, survivalOrAdventure, placeInOffhand, brandEnabled;
+  private final int minimumVehiclePackets, maxCaptchaTries, maxCaptchaDuration, maxBrandLength;
+  private final Pattern validNameRegex, validBrandRegex;
+  private final int maxTotalPacketsSent;
+
+  // Connection handling
+  private final boolean checkGeyser, checkEagler;
+  private final boolean logConnections, logDuringAttack, debugXYZPositions;
+  private final int readTimeout, writeTimeout, blacklistThreshold, blacklistEscalation;
+  @Getter(AccessLevel.NONE)
+  private final boolean[] blacklistedProtocols;
+
+  // Transfer
+  private final boolean transferEnabled, transferToHandshakeHostname;
+  private final String transferHost;
+  private final int transferPort;
+
+  // Messages
+  private final Component verificationSuccess, verificationFailed, invalidUsername, currentlyPreparing;
+  private final String connectionLog, successLog, failLog, blacklistLog;
+
+  private VerificationPolicy(final @NotNull SonarConfiguration config) {
+    final SonarConfiguration.Verification verification = config.getVerification();
+
+    this.gravityTiming = verification.getGravity().getTiming();
+    this.collisionTiming = verification.getGravity().getCollisionTiming();
+    this.vehicleTiming = verification.getVehicle().getTiming();
+    this.captchaTiming = verification.getMap().getTiming();
+    this.captchaOnFail = verification.getGravity().isCaptchaOnFail();
+    this.survivalOrAdventure = verification.getGamemode().isSurvivalOrAdventure();
+    this.placeInOffhand = verification.getMap().isPlaceInOffhand();
+    this.brandEnabled = verification.getBrand().isEnabled();
+    this.minimumVehiclePackets = verification.getVehicle().getMinimumPackets();
+    this.maxCaptchaTries = verification.getMap().getMaxTries();
+    this.maxCaptchaDuration = verification.getMap().getMaxDuration();
+    this.maxBrandLength = verification.getBrand().getMaxLength();
+    this.validNameRegex = verification.getValidNameRegex();
+    this.validBrandRegex = verification.getBrand().getValidRegex();
+
+    // The CAPTCHA countdown is only sent if the CAPTCHA can be shown at all
+    final boolean captchaPossible = captchaTiming != SonarConfiguration.Verification.Timing.NEVER
+      || captchaOnFail;
+    this.maxTotalPacketsSent = verification.getGravity().getMaxMovementTicks() + 2
+      + (captchaPossible ? maxCaptchaDuration / 1000 : 0) * 20 + 5
+      + minimumVehiclePackets * 4
+      + maxCaptchaTries
+      + verification.getMaxPacketCount();
+
+    this.checkGeyser = verification.isCheckGeyser();
+    this.checkEagler = verification.isCheckEagler();
+    this.logConnections = verification.isLogConnections();
+    this.logDuringAttack = verification.isLogDuringAttack();
+    this.debugXYZPositions = verification.isDebugXYZPositions();
+    this.readTimeout = verification.getReadTimeout();
+    this.writeTimeout = verification.getWriteTimeout();
+    this.blacklistThreshold = verification.getBlacklistThreshold();
+    this.blacklistEscalation = verification.getBlacklistEscalation();
+    this.blacklistedProtocols = new boolean[ProtocolVersion.values().length];
+    for (final ProtocolVersion protocolVersion : ProtocolVersion.values()) {
+      blacklistedProtocols[protocolVersion.ordinal()] = verification.getBlacklistedProtocols()
+        .contains(protocolVersion.getProtocol());
+    }
+
+    final SimpleYamlConfig generalConfig = config.getGeneralConfig();
+    this.transferEnabled = generalConfig.getBoolean("verification.transfer.enabled");
+    this.transferToHandshakeHostname = generalConfig.getBoolean("verification.transfer.use-handshake-hostname");
+    this.transferHost = generalConfig.getString("verification.transfer.destination-host");
+    this.transferPort = generalConfig.getInt("verification.transfer.destination-port");
+
+    this.verificationSuccess = verification.getVerificationSuccess();
+    this.verificationFailed = verification.getVerificationFailed();
+    this.invalidUsername = verification.getInvalidUsername();
+    this.currentlyPreparing = verification.getCurrentlyPreparing();
+
+    final SimpleYamlConfig messagesConfig = config.getMessagesConfig();
+    this.connectionLog = messagesConfig.getString("verification.logs.connection");
+    this.successLog = messagesConfig.getString("verification.logs.successful");
+    this.failLog = messagesConfig.getString("verification.logs.failed");
+    this.blacklistLog = messagesConfig.getString("verification.logs.blacklisted");
+  }
+
+  public boolean isProtocolBlacklisted(final @NotNull ProtocolVersion protocolVersion) {
+    return blacklistedProtocols[protocolVersion.ordinal()];
+  }
+}